@@ -1,57 +1,92 @@
 package com.ibm.cos.client;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 
 import java.awt.*;
 import java.awt.event.*;
 import java.io.*;
 import java.net.URI;
-import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.ibm.cloud.objectstorage.services.s3.AmazonS3;
 import com.ibm.cos.client.auth.AuthenticationService;
 import com.ibm.cos.client.auth.IBMAuthenticationService;
 import com.ibm.cos.client.auth.AuthenticationException;
+import com.ibm.cos.client.index.BucketIndex;
+import com.ibm.cos.client.index.IndexedCloudStorageService;
+import com.ibm.cos.client.service.CachingCloudStorageService;
 import com.ibm.cos.client.service.CloudStorageService;
 import com.ibm.cos.client.service.IBMCloudStorageService;
+import com.ibm.cos.client.service.ListingPrefetcher;
 import com.ibm.cos.client.service.StorageException;
 import com.ibm.cos.client.model.Credentials;
 import com.ibm.cos.client.model.ConnectionConfig;
 import com.ibm.cos.client.model.FileItem;
+import com.ibm.cos.client.model.FileListing;
+import com.ibm.cos.client.model.PerformanceProfile;
+import com.ibm.cos.client.model.SearchPattern;
+import com.ibm.cos.client.model.TransferConfig;
 import com.ibm.cos.client.util.FileUtils;
 import com.ibm.cos.client.operation.FileOperationHandler;
 import com.ibm.cos.client.operation.CloudFileOperationHandler;
 import com.ibm.cos.client.operation.FileOperationListener;
+import com.ibm.cos.client.operation.TransferJob;
+import com.ibm.cos.client.operation.TransferScheduler;
+import com.ibm.cos.client.operation.UploadJournal;
+import com.ibm.cos.client.sync.SyncDirection;
+import com.ibm.cos.client.ui.FileTableModel;
+import com.ibm.cos.client.ui.ListingView;
+import com.ibm.cos.client.ui.SearchResultsTableModel;
+import com.ibm.cos.client.ui.TransferQueueTableModel;
 
 public class IBMCloudCOSClient extends JFrame {
     private JTextField accessKeyField;
     private JPasswordField secretKeyField;
     private JTextField endpointField;
     private JButton connectButton;
+    private JComboBox<PerformanceProfile> profileComboBox;
     private JComboBox<String> bucketComboBox;
     private JTextField prefixField;
     private JButton refreshButton;
+    private JCheckBox prefetchCheckBox;
+    private JTextField filterField;
+    private Timer filterTimer;
     private JTable fileTable;
-    private DefaultTableModel tableModel;
+    private FileTableModel tableModel;
     private JButton uploadButton;
+    private JButton syncButton;
     private JButton downloadButton;
     private JButton deleteButton;
+    private JButton copyButton;
+    private JButton transfersButton;
     private JLabel statusLabel;
+    private JProgressBar transferProgressBar;
     private JTextField searchField;
     private JButton searchButton;
+    private JLabel indexLabel;
+    private JButton indexButton;
 
-    private static final String PARENT_FOLDER = ".. (parent)";
-    private static final String FOLDER_TYPE = "Folder";
-    private static final String FILE_TYPE = "File";
     
+    /** Folder listing, folder prefetch and index builds running beside transfers */
+    private static final int UI_REQUESTS = 4;
+
     private final AuthenticationService authService;
     private CloudStorageService storageService;
+    private CachingCloudStorageService listingCache;
+    private IndexedCloudStorageService bucketIndexes;
+    private ListingPrefetcher listingPrefetcher;
     private FileOperationHandler fileOperationHandler;
     private String currentBucket = "";
     private String currentPrefix = "";
+    private SwingWorker<Integer, List<FileItem>> listingWorker;
+    private SwingWorker<int[], Void> viewWorker;
+    private ListingView.SortColumn sortColumn;
+    private boolean sortAscending = true;
 
     public IBMCloudCOSClient() {
         this(new IBMAuthenticationService());
@@ -95,6 +130,14 @@ public class IBMCloudCOSClient extends JFrame {
         secretKeyField = new JPasswordField(15);
         credentialsPanel.add(secretKeyField);
 
+        credentialsPanel.add(new JLabel("Network:"));
+        profileComboBox = new JComboBox<>(PerformanceProfile.presets());
+        profileComboBox.setToolTipText("<html>Connection tuning<br>"
+            + "LAN: low latency, quick retries<br>"
+            + "WAN: high latency or unreliable links, larger buffers, patient retries<br>"
+            + "Bulk: many large transfers, wide connection pool</html>");
+        credentialsPanel.add(profileComboBox);
+
         connectButton = new JButton("Connect");
         connectButton.addActionListener(e -> authenticate());
         credentialsPanel.add(connectButton);
@@ -123,15 +166,58 @@ public class IBMCloudCOSClient extends JFrame {
         topNav.add(prefixField);
 
         refreshButton = new JButton("Refresh");
-        refreshButton.addActionListener(e -> refreshFiles());
+        refreshButton.addActionListener(e -> {
+            // An explicit refresh should show changes made by other clients
+            listingCache.invalidate(currentBucket, currentPrefix);
+            refreshFiles();
+        });
         refreshButton.setEnabled(false);
         topNav.add(refreshButton);
 
+        prefetchCheckBox = new JCheckBox("Prefetch folders");
+        prefetchCheckBox.setToolTipText("List visible sub-folders in the background so opening them is instant");
+        prefetchCheckBox.addActionListener(e -> {
+            if (prefetchCheckBox.isSelected()) {
+                prefetchVisibleFolders();
+            } else if (listingPrefetcher != null) {
+                listingPrefetcher.cancel();
+            }
+        });
+        topNav.add(prefetchCheckBox);
+
+        topNav.add(new JLabel("Filter:"));
+        filterField = new JTextField(15);
+        filterField.setToolTipText("Show only items of this folder whose name contains the text");
+        // Coalesce keystrokes so fast typing computes the filter once
+        filterTimer = new Timer(100, e -> applyListingView());
+        filterTimer.setRepeats(false);
+        filterField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                filterTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                filterTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                filterTimer.restart();
+            }
+        });
+        topNav.add(filterField);
+
         // Search panel - second row
         JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         searchPanel.add(new JLabel("Search:"));
         searchField = new JTextField(30);
-        searchField.setToolTipText("Search for files/folders recursively");
+        searchField.setToolTipText("<html>Search for files/folders recursively<br>"
+            + "Plain text matches anywhere in the path, ignoring case<br>"
+            + "glob:logs/2026-*/app-*.gz matches the whole path (** spans folders)<br>"
+            + "glob:*.gz matches file names in any folder<br>"
+            + "re:&lt;regex&gt; matches the whole path with a regular expression</html>");
         searchField.addActionListener(e -> performSearch()); // Enter key triggers search
         searchPanel.add(searchField);
 
@@ -140,6 +226,15 @@ public class IBMCloudCOSClient extends JFrame {
         searchButton.setEnabled(false);
         searchPanel.add(searchButton);
 
+        indexButton = new JButton("Build Index");
+        indexButton.setToolTipText("List the whole bucket once so searches are answered locally");
+        indexButton.addActionListener(e -> buildIndex());
+        indexButton.setEnabled(false);
+        searchPanel.add(indexButton);
+
+        indexLabel = new JLabel(" ");
+        searchPanel.add(indexLabel);
+
         // Combined navigation panel
         JPanel combinedNavPanel = new JPanel(new BorderLayout());
         combinedNavPanel.add(topNav, BorderLayout.NORTH);
@@ -147,14 +242,17 @@ public class IBMCloudCOSClient extends JFrame {
 
         navPanel.add(combinedNavPanel, BorderLayout.NORTH);
 
-        String[] columnNames = {"Name", "Type", "Size", "Last Modified"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
+        tableModel = new FileTableModel();
+        fileTable = new JTable(tableModel);
+        fileTable.getTableHeader().addMouseListener(new MouseAdapter() {
             @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
+            public void mouseClicked(MouseEvent e) {
+                int column = fileTable.columnAtPoint(e.getPoint());
+                if (column >= 0) {
+                    sortBy(fileTable.convertColumnIndexToModel(column));
+                }
             }
-        };
-        fileTable = new JTable(tableModel);
+        });
         fileTable.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
         fileTable.addMouseListener(new MouseAdapter() {
             @Override
@@ -169,12 +267,10 @@ public class IBMCloudCOSClient extends JFrame {
             if (!e.getValueIsAdjusting()) {
                 int[] selectedRows = fileTable.getSelectedRows();
                 if (selectedRows.length > 0) {
-                    // For download, enable if at least 1 file is selected
+                    // For download, enable if at least 1 file or folder is selected
                     boolean enableDownload = false;
                     for (int row : selectedRows) {
-                        String type = tableModel.getValueAt(row, 1).toString();
-                        String name = tableModel.getValueAt(row, 0).toString();
-                        if (type.equals("File") && !PARENT_FOLDER.equals(name)) {
+                        if (!tableModel.isParentRow(row)) {
                             enableDownload = true;
                             break;
                         }
@@ -184,16 +280,17 @@ public class IBMCloudCOSClient extends JFrame {
                     // For delete, enable if no "parent" item is selected
                     boolean enableDelete = true;
                     for (int row : selectedRows) {
-                        String name = tableModel.getValueAt(row, 0).toString();
-                        if (PARENT_FOLDER.equals(name)) {
+                        if (tableModel.isParentRow(row)) {
                             enableDelete = false;
                             break;
                         }
                     }
                     deleteButton.setEnabled(enableDelete);
+                    copyButton.setEnabled(enableDelete);
                 } else {
                     downloadButton.setEnabled(false);
                     deleteButton.setEnabled(false);
+                    copyButton.setEnabled(false);
                 }
             }
         });
@@ -212,6 +309,14 @@ public class IBMCloudCOSClient extends JFrame {
         statusLabel = new JLabel("Not connected");
         statusPanel.add(statusLabel, BorderLayout.WEST);
         
+        transferProgressBar = new JProgressBar(0, 1000);
+        transferProgressBar.setStringPainted(true);
+        transferProgressBar.setPreferredSize(new Dimension(320, 18));
+        transferProgressBar.setVisible(false);
+        JPanel progressPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 0, 0));
+        progressPanel.add(transferProgressBar);
+        statusPanel.add(progressPanel, BorderLayout.CENTER);
+        
         // Create link label
         JLabel linkLabel = new JLabel("<html><a href='https://gab.dev.br'>gab.dev.br</a></html>");
         linkLabel.setForeground(Color.BLUE);
@@ -252,11 +357,18 @@ public class IBMCloudCOSClient extends JFrame {
         uploadButton.setToolTipText("Upload multiple files (supports multiple selection)");
         actionPanel.add(uploadButton);
 
+        syncButton = new JButton("Sync Folder");
+        syncButton.addActionListener(e -> syncFolder());
+        syncButton.setEnabled(false);
+        syncButton.setPreferredSize(new Dimension(120, 30));
+        syncButton.setToolTipText("Transfer only what differs between a local folder and the current folder");
+        actionPanel.add(syncButton);
+
         downloadButton = new JButton("Download Files");
         downloadButton.addActionListener(e -> downloadFile());
         downloadButton.setEnabled(false);
         downloadButton.setPreferredSize(new Dimension(120, 30));
-        downloadButton.setToolTipText("Download selected files (supports multiple selection)");
+        downloadButton.setToolTipText("Download selected files and folders (supports multiple selection)");
         actionPanel.add(downloadButton);
 
         deleteButton = new JButton("Delete");
@@ -266,6 +378,20 @@ public class IBMCloudCOSClient extends JFrame {
         deleteButton.setToolTipText("Delete selected items (supports multiple selection)");
         actionPanel.add(deleteButton);
 
+        copyButton = new JButton("Copy / Move");
+        copyButton.addActionListener(e -> copyOrMove());
+        copyButton.setEnabled(false);
+        copyButton.setPreferredSize(new Dimension(120, 30));
+        copyButton.setToolTipText("Copy, move or rename selected items on the server");
+        actionPanel.add(copyButton);
+
+        transfersButton = new JButton("Transfers");
+        transfersButton.addActionListener(e -> showTransferQueue());
+        transfersButton.setEnabled(false);
+        transfersButton.setPreferredSize(new Dimension(120, 30));
+        transfersButton.setToolTipText("Pause, resume, cancel or re-prioritize running operations");
+        actionPanel.add(transfersButton);
+
         // Combine action panel and status bar
         JPanel bottomPanel = new JPanel(new BorderLayout());
         bottomPanel.add(actionPanel, BorderLayout.NORTH);
@@ -278,6 +404,7 @@ public class IBMCloudCOSClient extends JFrame {
         String accessKey = accessKeyField.getText().trim();
         String secretKey = new String(secretKeyField.getPassword()).trim();
         String endpoint = endpointField.getText().trim();
+        PerformanceProfile selectedProfile = (PerformanceProfile) profileComboBox.getSelectedItem();
 
         if (accessKey.isEmpty() || secretKey.isEmpty() || endpoint.isEmpty()) {
             showError("Please enter access key, secret key, and endpoint");
@@ -292,13 +419,23 @@ public class IBMCloudCOSClient extends JFrame {
             protected Boolean doInBackground() {
                 try {
                     Credentials credentials = new Credentials(accessKey, secretKey);
-                    ConnectionConfig config = new ConnectionConfig(endpoint, "us-south");
+                    TransferConfig transferConfig = new TransferConfig();
+                    // Size the pool for every transfer, part, listing shard and the table's own listings,
+                    // so parallel requests never queue for a connection
+                    PerformanceProfile profile = selectedProfile.withConnectionsFor(transferConfig.getMaxConcurrentRequests() + UI_REQUESTS);
+                    ConnectionConfig config = new ConnectionConfig(endpoint, "us-south", profile);
                     
                     AmazonS3 client = authService.authenticate(credentials, config);
                     authService.validateConnection(client);
-                    
-                    storageService = new IBMCloudStorageService(client);
-                    fileOperationHandler = new CloudFileOperationHandler(storageService);
+
+                    // Bucket names are only unique per endpoint, so each endpoint keeps its own indexes
+                    String endpointDirectory = endpoint.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9.-]", "_");
+                    bucketIndexes = new IndexedCloudStorageService(new IBMCloudStorageService(client, transferConfig),
+                            FileUtils.getApplicationDirectory("index" + File.separator + endpointDirectory));
+                    listingCache = new CachingCloudStorageService(bucketIndexes);
+                    storageService = listingCache;
+                    listingPrefetcher = new ListingPrefetcher(listingCache);
+                    fileOperationHandler = new CloudFileOperationHandler(storageService, transferConfig);
                     return true;
                 } catch (AuthenticationException ex) {
                     ex.printStackTrace();
@@ -315,6 +452,7 @@ public class IBMCloudCOSClient extends JFrame {
                         accessKeyField.setEnabled(false);
                         secretKeyField.setEnabled(false);
                         endpointField.setEnabled(false);
+                        profileComboBox.setEnabled(false);
                         loadBuckets();
                     } else {
                         showError("Authentication failed - check credentials and endpoint");
@@ -354,8 +492,12 @@ public class IBMCloudCOSClient extends JFrame {
                         bucketComboBox.setEnabled(true);
                         refreshButton.setEnabled(true);
                         uploadButton.setEnabled(true);
+                        syncButton.setEnabled(true);
+                        transfersButton.setEnabled(true);
                         searchButton.setEnabled(true);
+                        indexButton.setEnabled(true);
                         setStatus("Buckets loaded: " + buckets.size() + " found");
+                        offerInterruptedUploads();
                     } else {
                         setStatus("No buckets found");
                     }
@@ -366,62 +508,348 @@ public class IBMCloudCOSClient extends JFrame {
         }.execute();
     }
 
+    /**
+     * Reads the journals of unfinished uploads in the background and offers to resume them
+     */
+    private void offerInterruptedUploads() {
+        new SwingWorker<List<UploadJournal>, Void>() {
+            @Override
+            protected List<UploadJournal> doInBackground() {
+                return fileOperationHandler.findInterruptedUploads();
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    List<UploadJournal> uploads = get();
+                    if (!uploads.isEmpty()) {
+                        confirmInterruptedUploads(uploads);
+                    }
+                } catch (Exception ex) {
+                    ex.printStackTrace();
+                }
+            }
+        }.execute();
+    }
+
+    private void confirmInterruptedUploads(List<UploadJournal> uploads) {
+        StringBuilder message = new StringBuilder();
+        message.append(uploads.size()).append(" upload(s) did not finish in the previous session:\n");
+        for (int i = 0; i < uploads.size() && i < 10; i++) {
+            UploadJournal upload = uploads.get(i);
+            message.append("  ").append(upload.getBucket()).append("/").append(upload.getKey())
+                   .append(" (").append(FileUtils.formatSize(upload.getFileSize())).append(")\n");
+        }
+        if (uploads.size() > 10) {
+            message.append("  ...\n");
+        }
+        message.append("\nResume them now? Parts already stored on the server will not be sent again.");
+
+        Object[] options = {"Resume", "Discard", "Later"};
+        int choice = JOptionPane.showOptionDialog(this, message.toString(), "Interrupted Uploads",
+            JOptionPane.YES_NO_CANCEL_OPTION, JOptionPane.QUESTION_MESSAGE, null, options, options[0]);
+
+        FileOperationListener listener = new FileOperationListener() {
+            @Override
+            public void onOperationStarted(String message) {
+                setStatus(message);
+            }
+
+            @Override
+            public void onOperationProgress(String message) {
+                setStatus(message);
+            }
+
+            @Override
+            public void onTransferProgress(int completedFiles, int totalFiles, long bytesTransferred, long totalBytes) {
+                showTransferProgress(completedFiles, totalFiles, bytesTransferred, totalBytes);
+            }
+
+            @Override
+            public void onOperationCompleted(String message) {
+                hideTransferProgress();
+                setStatus(message);
+                refreshFiles();
+            }
+
+            @Override
+            public void onOperationFailed(String message) {
+                hideTransferProgress();
+                showError(message);
+            }
+        };
+
+        if (choice == 0) {
+            fileOperationHandler.resumeUploads(uploads, listener);
+        } else if (choice == 1) {
+            fileOperationHandler.discardUploads(uploads, listener);
+        }
+    }
+
     private void onBucketSelected() {
         if (bucketComboBox.getSelectedItem() != null) {
             currentBucket = bucketComboBox.getSelectedItem().toString();
             currentPrefix = "";
             prefixField.setText("");
             refreshFiles();
+            updateIndexStatus();
+        }
+    }
+
+    private void updateIndexStatus() {
+        String bucket = currentBucket;
+        new SwingWorker<BucketIndex, Void>() {
+            @Override
+            protected BucketIndex doInBackground() throws Exception {
+                return bucketIndexes.getIndex(bucket);
+            }
+
+            @Override
+            protected void done() {
+                if (!bucket.equals(currentBucket)) return;
+                try {
+                    showIndexStatus(get());
+                } catch (Exception ex) {
+                    ex.printStackTrace();
+                    showIndexStatus(null);
+                }
+            }
+        }.execute();
+    }
+
+    private void showIndexStatus(BucketIndex index) {
+        if (index == null) {
+            indexLabel.setText("No index - searches list the bucket");
+            indexButton.setText("Build Index");
+            return;
         }
+        long minutes = (System.currentTimeMillis() - index.getBuiltAt()) / 60_000;
+        String age = minutes < 1 ? "just now" : minutes < 120 ? minutes + " min ago" : (minutes / 60) + " h ago";
+        indexLabel.setText("Index: " + index.getSnapshotCount() + " keys, built " + age);
+        indexButton.setText("Rebuild Index");
+    }
+
+    private void buildIndex() {
+        if (currentBucket.isEmpty()) {
+            showError("Please select a bucket first");
+            return;
+        }
+
+        String bucket = currentBucket;
+        setStatus("Indexing bucket " + bucket + "...");
+        indexButton.setEnabled(false);
+
+        new SwingWorker<BucketIndex, Integer>() {
+            private int indexedCount;
+
+            @Override
+            protected BucketIndex doInBackground() throws Exception {
+                return bucketIndexes.buildIndex(bucket, page -> {
+                    indexedCount += page.size();
+                    publish(indexedCount);
+                    return !isCancelled();
+                });
+            }
+
+            @Override
+            protected void process(List<Integer> counts) {
+                setStatus("Indexing bucket " + bucket + "... " + counts.get(counts.size() - 1) + " keys");
+            }
+
+            @Override
+            protected void done() {
+                indexButton.setEnabled(true);
+                try {
+                    BucketIndex index = get();
+                    if (bucket.equals(currentBucket)) {
+                        showIndexStatus(index);
+                    }
+                    setStatus("Indexed " + index.getSnapshotCount() + " keys in bucket " + bucket);
+                } catch (Exception ex) {
+                    showError("Indexing failed: " + ex.getMessage());
+                }
+            }
+        }.execute();
     }
 
     private void refreshFiles() {
         if (currentBucket.isEmpty()) return;
 
+        if (listingWorker != null) {
+            listingWorker.cancel(false);
+        }
+        listingPrefetcher.cancel();
         setStatus("Loading files...");
 
-        new SwingWorker<List<FileItem>, Void>() {
+        String bucket = currentBucket;
+        String prefix = currentPrefix;
+        listingWorker = new SwingWorker<Integer, List<FileItem>>() {
+            private boolean firstPage = true;
+            private int loadedCount;
+
             @Override
-            protected List<FileItem> doInBackground() {
+            protected Integer doInBackground() {
+                AtomicInteger count = new AtomicInteger(0);
                 try {
-                    return storageService.listObjects(currentBucket, currentPrefix);
+                    storageService.listObjects(bucket, prefix, page -> {
+                        if (isCancelled()) {
+                            return false;
+                        }
+                        count.addAndGet(page.size());
+                        publish(page);
+                        return true;
+                    });
                 } catch (StorageException ex) {
                     ex.printStackTrace();
-                    return new ArrayList<>();
                 }
+                return count.get();
+            }
+
+            @Override
+            protected void process(List<List<FileItem>> pages) {
+                if (isCancelled()) return;
+                for (List<FileItem> page : pages) {
+                    if (firstPage) {
+                        populateFileTable(page);
+                        firstPage = false;
+                    } else {
+                        appendFileRows(page);
+                    }
+                    loadedCount += page.size();
+                }
+                setStatus("Loading files... " + loadedCount + " items");
             }
 
             @Override
             protected void done() {
+                if (isCancelled()) return;
                 try {
-                    List<FileItem> items = get();
-                    populateFileTable(items);
-                    setStatus("Files loaded: " + items.size() + " items");
+                    int count = get();
+                    // Pages may still be queued for process(); only clear the table if nothing came back
+                    if (firstPage && count == 0) {
+                        populateFileTable(Collections.emptyList());
+                        firstPage = false;
+                    }
+                    setStatus("Files loaded: " + count + " items");
+                    rankNames(tableModel.getListing());
+                    applyListingView();
+                    // Let the table lay out the new rows before deciding which are visible
+                    SwingUtilities.invokeLater(() -> prefetchVisibleFolders());
                 } catch (Exception ex) {
                     showError("Error loading files: " + ex.getMessage());
                 }
             }
-        }.execute();
+        };
+        listingWorker.execute();
     }
     
-    private void populateFileTable(List<FileItem> items) {
-        tableModel.setRowCount(0);
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm");
-        
-        if (!currentPrefix.isEmpty()) {
-            tableModel.addRow(new Object[]{PARENT_FOLDER, FOLDER_TYPE, "", ""});
+    private void sortBy(int column) {
+        ListingView.SortColumn clicked = column == 2 ? ListingView.SortColumn.SIZE
+            : column == 3 ? ListingView.SortColumn.DATE : ListingView.SortColumn.NAME;
+        sortAscending = clicked != sortColumn || !sortAscending;
+        sortColumn = clicked;
+
+        for (int i = 0; i < tableModel.getColumnCount(); i++) {
+            String name = tableModel.getColumnName(i);
+            if (i == column) {
+                name += sortAscending ? " \u25B2" : " \u25BC";
+            }
+            fileTable.getColumnModel().getColumn(fileTable.convertColumnIndexToView(i)).setHeaderValue(name);
         }
+        fileTable.getTableHeader().repaint();
+        applyListingView();
+    }
 
-        for (FileItem item : items) {
-            String type = item.isFile() ? FILE_TYPE : FOLDER_TYPE;
-            String size = item.isFile() ? FileUtils.formatSize(item.getSize()) : "";
-            String date = item.getLastModified() != null ? dateFormat.format(item.getLastModified()) : "";
-            
-            tableModel.addRow(new Object[]{item.getName(), type, size, date});
+    /**
+     * Sorts and filters the current listing on a background thread and swaps the
+     * result into the table model, so large folders do not block the EDT
+     */
+    private void applyListingView() {
+        if (viewWorker != null) {
+            viewWorker.cancel(false);
+        }
+        // A listing still loading is arranged once its last page is in
+        if (listingWorker != null && !listingWorker.isDone()) return;
+
+        ListingView view = new ListingView(sortColumn, sortAscending, filterField.getText());
+        FileListing listing = tableModel.getListing();
+        int size = listing.size();
+        if (view.isIdentity()) {
+            tableModel.setView(listing, size, null);
+            return;
+        }
+
+        viewWorker = new SwingWorker<int[], Void>() {
+            @Override
+            protected int[] doInBackground() {
+                return view.compute(listing);
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled()) return;
+                try {
+                    if (tableModel.setView(listing, size, get())) {
+                        if (!view.getFilterText().isEmpty()) {
+                            setStatus("Showing " + (tableModel.getRowCount() - (currentPrefix.isEmpty() ? 0 : 1))
+                                + " of " + size + " items");
+                        }
+                    } else if (tableModel.getListing() == listing) {
+                        // Pages arrived meanwhile
+                        applyListingView();
+                    }
+                } catch (Exception ex) {
+                    ex.printStackTrace();
+                }
+            }
+        };
+        viewWorker.execute();
+    }
+
+    /**
+     * Ranks the names of a loaded listing in the background, so sorting it by name never
+     * has to compare names again
+     */
+    private void rankNames(FileListing listing) {
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() {
+                listing.getNameRanks();
+                return null;
+            }
+        }.execute();
+    }
+
+    private void prefetchVisibleFolders() {
+        if (!prefetchCheckBox.isSelected() || listingPrefetcher == null || currentBucket.isEmpty()) return;
+
+        Rectangle visible = fileTable.getVisibleRect();
+        int firstRow = Math.max(0, fileTable.rowAtPoint(visible.getLocation()));
+        int lastRow = fileTable.rowAtPoint(new Point(visible.x, visible.y + visible.height - 1));
+        if (lastRow < 0) {
+            lastRow = tableModel.getRowCount() - 1;
         }
 
+        List<String> folderPrefixes = new ArrayList<>();
+        for (int row = firstRow; row <= lastRow && folderPrefixes.size() < listingPrefetcher.getMaxFolders(); row++) {
+            FileItem item = tableModel.getItem(row);
+            if (item.isFolder() && !tableModel.isParentRow(row)) {
+                folderPrefixes.add(currentPrefix + item.getName());
+            }
+        }
+        listingPrefetcher.prefetch(currentBucket, folderPrefixes);
+    }
+
+    private void populateFileTable(List<FileItem> items) {
+        tableModel.setItems(currentPrefix, items, !currentPrefix.isEmpty());
+
         downloadButton.setEnabled(false);
         deleteButton.setEnabled(false);
+        copyButton.setEnabled(false);
+    }
+    
+    private void appendFileRows(List<FileItem> items) {
+        tableModel.addItems(items);
     }
 
 
@@ -429,11 +857,10 @@ public class IBMCloudCOSClient extends JFrame {
     private void onDoubleClick() {
         int selectedRow = fileTable.getSelectedRow();
         if (selectedRow >= 0) {
-            String name = tableModel.getValueAt(selectedRow, 0).toString();
-            String type = tableModel.getValueAt(selectedRow, 1).toString();
+            String name = tableModel.getItem(selectedRow).getName();
 
-            if (FOLDER_TYPE.equals(type)) {
-                if (PARENT_FOLDER.equals(name)) {
+            if (tableModel.getItem(selectedRow).isFolder()) {
+                if (tableModel.isParentRow(selectedRow)) {
                     int lastSlash = currentPrefix.lastIndexOf("/", currentPrefix.length() - 2);
                     if (lastSlash > 0) {
                         currentPrefix = currentPrefix.substring(0, lastSlash + 1);
@@ -457,6 +884,7 @@ public class IBMCloudCOSClient extends JFrame {
 
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setMultiSelectionEnabled(true);
+        fileChooser.setFileSelectionMode(JFileChooser.FILES_AND_DIRECTORIES);
         if (fileChooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
             File[] selectedFiles = fileChooser.getSelectedFiles();
             java.util.List<File> fileList = java.util.Arrays.asList(selectedFiles);
@@ -474,8 +902,14 @@ public class IBMCloudCOSClient extends JFrame {
                     setStatus(message);
                 }
 
+                @Override
+                public void onTransferProgress(int completedFiles, int totalFiles, long bytesTransferred, long totalBytes) {
+                    showTransferProgress(completedFiles, totalFiles, bytesTransferred, totalBytes);
+                }
+
                 @Override
                 public void onOperationCompleted(String message) {
+                    hideTransferProgress();
                     setStatus(message);
                     refreshFiles();
                     uploadButton.setEnabled(true);
@@ -483,6 +917,7 @@ public class IBMCloudCOSClient extends JFrame {
 
                 @Override
                 public void onOperationFailed(String message) {
+                    hideTransferProgress();
                     showError(message);
                     uploadButton.setEnabled(true);
                 }
@@ -492,23 +927,81 @@ public class IBMCloudCOSClient extends JFrame {
         }
     }
 
+    private void syncFolder() {
+        if (currentBucket.isEmpty()) {
+            showError("Please select a bucket");
+            return;
+        }
+
+        JFileChooser directoryChooser = new JFileChooser();
+        directoryChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        directoryChooser.setDialogTitle("Select Folder to Sync with /" + currentPrefix);
+        if (directoryChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File localDirectory = directoryChooser.getSelectedFile();
+
+        SyncDirection direction = (SyncDirection) JOptionPane.showInputDialog(this,
+            "Sync '" + localDirectory.getName() + "' with '" + currentBucket + "/" + currentPrefix + "':",
+            "Sync Folder",
+            JOptionPane.QUESTION_MESSAGE,
+            null,
+            SyncDirection.values(),
+            SyncDirection.UPLOAD);
+        if (direction == null) {
+            return;
+        }
+
+        syncButton.setEnabled(false);
+
+        FileOperationListener listener = new FileOperationListener() {
+            @Override
+            public void onOperationStarted(String message) {
+                setStatus(message);
+            }
+
+            @Override
+            public void onOperationProgress(String message) {
+                setStatus(message);
+            }
+
+            @Override
+            public void onTransferProgress(int completedFiles, int totalFiles, long bytesTransferred, long totalBytes) {
+                showTransferProgress(completedFiles, totalFiles, bytesTransferred, totalBytes);
+            }
+
+            @Override
+            public void onOperationCompleted(String message) {
+                hideTransferProgress();
+                setStatus(message);
+                refreshFiles();
+                syncButton.setEnabled(true);
+            }
+
+            @Override
+            public void onOperationFailed(String message) {
+                hideTransferProgress();
+                showError(message);
+                syncButton.setEnabled(true);
+            }
+        };
+
+        fileOperationHandler.syncFolder(localDirectory, currentBucket, currentPrefix, direction, listener);
+    }
+
     private void downloadFile() {
         int[] selectedRows = fileTable.getSelectedRows();
         if (selectedRows.length == 0) return;
 
-        // Collect only selected files (not folders)
+        // Folder names keep their trailing "/" so everything under them is downloaded
         java.util.List<String> filesToDownload = new ArrayList<>();
         for (int row : selectedRows) {
-            String name = tableModel.getValueAt(row, 0).toString();
-            String type = tableModel.getValueAt(row, 1).toString();
-            
-            if (FILE_TYPE.equals(type) && !PARENT_FOLDER.equals(name)) {
-                filesToDownload.add(currentPrefix + name);
-            }
+            if (tableModel.isParentRow(row)) continue;
+            filesToDownload.add(currentPrefix + tableModel.getItem(row).getName());
         }
         
         if (filesToDownload.isEmpty()) {
-            showError("No files selected for download");
+            showError("No files or folders selected for download");
             return;
         }
 
@@ -532,14 +1025,21 @@ public class IBMCloudCOSClient extends JFrame {
                     setStatus(message);
                 }
 
+                @Override
+                public void onTransferProgress(int completedFiles, int totalFiles, long bytesTransferred, long totalBytes) {
+                    showTransferProgress(completedFiles, totalFiles, bytesTransferred, totalBytes);
+                }
+
                 @Override
                 public void onOperationCompleted(String message) {
+                    hideTransferProgress();
                     setStatus(message);
                     downloadButton.setEnabled(true);
                 }
 
                 @Override
                 public void onOperationFailed(String message) {
+                    hideTransferProgress();
                     showError(message);
                     downloadButton.setEnabled(true);
                 }
@@ -558,16 +1058,11 @@ public class IBMCloudCOSClient extends JFrame {
         java.util.List<String> itemNames = new ArrayList<>();
         
         for (int row : selectedRows) {
-            String name = tableModel.getValueAt(row, 0).toString();
-            String type = tableModel.getValueAt(row, 1).toString();
-            
-            if (PARENT_FOLDER.equals(name)) continue;
+            if (tableModel.isParentRow(row)) continue;
+            String name = tableModel.getItem(row).getName();
             
-            String key = currentPrefix + name;
-            if (FOLDER_TYPE.equals(type)) {
-                key = key.substring(0, key.length() - 1);
-            }
-            itemsToDelete.add(key);
+            // Folder names keep their trailing "/" so the whole prefix is deleted
+            itemsToDelete.add(currentPrefix + name);
             itemNames.add(name);
         }
         
@@ -575,7 +1070,10 @@ public class IBMCloudCOSClient extends JFrame {
 
         // Mensagem de confirmação baseada na quantidade de itens
         String confirmMessage;
-        if (itemsToDelete.size() == 1) {
+        if (itemsToDelete.size() == 1 && itemNames.get(0).endsWith("/")) {
+            confirmMessage = "Are you sure you want to delete the folder '" + itemNames.get(0)
+                + "' and everything in it?";
+        } else if (itemsToDelete.size() == 1) {
             confirmMessage = "Are you sure you want to delete '" + itemNames.get(0) + "'?";
         } else {
             confirmMessage = "Are you sure you want to delete " + itemsToDelete.size() + " items?";
@@ -619,10 +1117,206 @@ public class IBMCloudCOSClient extends JFrame {
         }
     }
 
+    private void copyOrMove() {
+        int[] selectedRows = fileTable.getSelectedRows();
+        java.util.List<String> names = new ArrayList<>();
+        for (int row : selectedRows) {
+            if (!tableModel.isParentRow(row)) {
+                names.add(tableModel.getItem(row).getName());
+            }
+        }
+        if (names.isEmpty()) return;
+
+        // One item is given its full new key; several are placed in a destination folder
+        boolean single = names.size() == 1;
+        JTextField destinationField = new JTextField(single ? currentPrefix + names.get(0) : currentPrefix, 40);
+        JCheckBox moveCheckBox = new JCheckBox("Move (delete the originals)");
+        JPanel panel = new JPanel(new BorderLayout(5, 5));
+        panel.add(new JLabel(single ? "New key for '" + names.get(0) + "':" : "Destination folder for " + names.size() + " items:"),
+            BorderLayout.NORTH);
+        panel.add(destinationField, BorderLayout.CENTER);
+        panel.add(moveCheckBox, BorderLayout.SOUTH);
+
+        if (JOptionPane.showConfirmDialog(this, panel, "Copy / Move", JOptionPane.OK_CANCEL_OPTION,
+                JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+            return;
+        }
+
+        String destination = destinationField.getText().trim();
+        if (destination.startsWith("/")) {
+            destination = destination.substring(1);
+        }
+        if (destination.isEmpty() && single) {
+            showError("Please enter a destination");
+            return;
+        }
+
+        Map<String, String> destinations = new LinkedHashMap<>();
+        for (String name : names) {
+            String target;
+            if (single) {
+                // A folder keeps its trailing "/" so it is copied as a prefix
+                target = name.endsWith("/") && !destination.endsWith("/") ? destination + "/" : destination;
+            } else {
+                target = (destination.isEmpty() || destination.endsWith("/") ? destination : destination + "/") + name;
+            }
+            String source = currentPrefix + name;
+            if (source.equals(target)) {
+                showError("'" + name + "' is already at that location");
+                return;
+            }
+            if (source.endsWith("/") && target.startsWith(source)) {
+                showError("A folder cannot be copied into itself: " + name);
+                return;
+            }
+            destinations.put(source, target);
+        }
+
+        copyButton.setEnabled(false);
+
+        FileOperationListener listener = new FileOperationListener() {
+            @Override
+            public void onOperationStarted(String message) {
+                setStatus(message);
+            }
+
+            @Override
+            public void onOperationProgress(String message) {
+                setStatus(message);
+            }
+
+            @Override
+            public void onOperationCompleted(String message) {
+                setStatus(message);
+                refreshFiles();
+                copyButton.setEnabled(true);
+            }
+
+            @Override
+            public void onOperationFailed(String message) {
+                showError(message);
+                refreshFiles();
+                copyButton.setEnabled(true);
+            }
+        };
+
+        if (moveCheckBox.isSelected()) {
+            fileOperationHandler.moveFiles(destinations, currentBucket, listener);
+        } else {
+            fileOperationHandler.copyFiles(destinations, currentBucket, listener);
+        }
+    }
+
+    private void showTransferQueue() {
+        TransferScheduler scheduler = fileOperationHandler.getScheduler();
+        TransferQueueTableModel queueModel = new TransferQueueTableModel();
+        queueModel.refresh(scheduler.getJobs());
+
+        JDialog queueDialog = new JDialog(this, "Transfers", false);
+        queueDialog.setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
+        queueDialog.setSize(900, 350);
+        queueDialog.setLocationRelativeTo(this);
+        queueDialog.setLayout(new BorderLayout());
+
+        JTable queueTable = new JTable(queueModel);
+        queueTable.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+        queueTable.getColumnModel().getColumn(0).setPreferredWidth(280); // Operation
+        queueTable.getColumnModel().getColumn(1).setPreferredWidth(70);  // Priority
+        queueTable.getColumnModel().getColumn(2).setPreferredWidth(80);  // State
+        queueTable.getColumnModel().getColumn(3).setPreferredWidth(200); // Progress
+        queueTable.getColumnModel().getColumn(4).setPreferredWidth(270); // Status
+        queueDialog.add(new JScrollPane(queueTable), BorderLayout.CENTER);
+
+        JPanel buttonPanel = new JPanel(new FlowLayout());
+
+        JButton pauseButton = new JButton("Pause");
+        pauseButton.setToolTipText("Hold back transfers that have not started; running ones finish");
+        pauseButton.addActionListener(e -> {
+            for (int row : queueTable.getSelectedRows()) {
+                queueModel.getJob(row).pause();
+            }
+        });
+        buttonPanel.add(pauseButton);
+
+        JButton resumeButton = new JButton("Resume");
+        resumeButton.addActionListener(e -> {
+            for (int row : queueTable.getSelectedRows()) {
+                queueModel.getJob(row).resume();
+            }
+        });
+        buttonPanel.add(resumeButton);
+
+        JButton cancelButton = new JButton("Cancel");
+        cancelButton.setToolTipText("Drop queued transfers and abort running ones");
+        cancelButton.addActionListener(e -> {
+            for (int row : queueTable.getSelectedRows()) {
+                queueModel.getJob(row).cancel();
+            }
+        });
+        buttonPanel.add(cancelButton);
+
+        JComboBox<TransferJob.Priority> priorityComboBox = new JComboBox<>(TransferJob.Priority.values());
+        priorityComboBox.setSelectedItem(TransferJob.Priority.NORMAL);
+        JButton priorityButton = new JButton("Set Priority");
+        priorityButton.setToolTipText("Let the selected operations' waiting transfers go ahead of, or behind, others");
+        priorityButton.addActionListener(e -> {
+            TransferJob.Priority priority = (TransferJob.Priority) priorityComboBox.getSelectedItem();
+            for (int row : queueTable.getSelectedRows()) {
+                queueModel.getJob(row).setPriority(priority);
+            }
+        });
+        buttonPanel.add(priorityComboBox);
+        buttonPanel.add(priorityButton);
+
+        JButton clearButton = new JButton("Clear Finished");
+        clearButton.addActionListener(e -> {
+            scheduler.removeFinishedJobs();
+            queueModel.refresh(scheduler.getJobs());
+        });
+        buttonPanel.add(clearButton);
+
+        JSpinner concurrencySpinner = new JSpinner(new SpinnerNumberModel(scheduler.getConcurrency(), 1,
+            scheduler.getMaxConcurrency(), 1));
+        concurrencySpinner.setToolTipText("How many files are transferred at once across all operations");
+        concurrencySpinner.addChangeListener(e -> scheduler.setConcurrency((Integer) concurrencySpinner.getValue()));
+        buttonPanel.add(new JLabel("Concurrent transfers:"));
+        buttonPanel.add(concurrencySpinner);
+
+        queueDialog.add(buttonPanel, BorderLayout.SOUTH);
+
+        // Jobs change on the transfer threads, so the table is repainted from their current state
+        Timer refreshTimer = new Timer(500, e -> queueModel.refresh(scheduler.getJobs()));
+        queueDialog.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                refreshTimer.stop();
+            }
+        });
+        refreshTimer.start();
+        queueDialog.setVisible(true);
+    }
+
     private void setStatus(String message) {
         statusLabel.setText(message);
     }
 
+    private void showTransferProgress(int completedFiles, int totalFiles, long bytesTransferred, long totalBytes) {
+        if (totalBytes > 0) {
+            transferProgressBar.setValue((int) Math.min(1000, bytesTransferred * 1000 / totalBytes));
+            transferProgressBar.setString(completedFiles + "/" + totalFiles + " files - "
+                + FileUtils.formatSize(bytesTransferred) + " of " + FileUtils.formatSize(totalBytes));
+        } else {
+            transferProgressBar.setValue(totalFiles > 0 ? completedFiles * 1000 / totalFiles : 0);
+            transferProgressBar.setString(completedFiles + "/" + totalFiles + " files - "
+                + FileUtils.formatSize(bytesTransferred));
+        }
+        transferProgressBar.setVisible(true);
+    }
+
+    private void hideTransferProgress() {
+        transferProgressBar.setVisible(false);
+    }
+
     private void showError(String message) {
         JOptionPane.showMessageDialog(this, message, "Error", JOptionPane.ERROR_MESSAGE);
         setStatus("Error: " + message);
@@ -640,71 +1334,88 @@ public class IBMCloudCOSClient extends JFrame {
             return;
         }
 
+        try {
+            SearchPattern.compile(searchTerm);
+        } catch (IllegalArgumentException ex) {
+            showError(ex.getMessage());
+            return;
+        }
+
         setStatus("Searching for '" + searchTerm + "'...");
         searchButton.setEnabled(false);
 
-        new SwingWorker<List<FileItem>, Void>() {
+        // The dialog opens right away and fills in as pages of the bucket are scanned
+        JDialog searchDialog = new JDialog(this, "Search Results - '" + searchTerm + "'", false);
+        SearchResultsTableModel searchTableModel = new SearchResultsTableModel();
+        JLabel searchInfoLabel = new JLabel("Searching...");
+        JButton cancelButton = new JButton("Cancel");
+        String bucket = currentBucket;
+
+        SwingWorker<Void, List<FileItem>> searchWorker = new SwingWorker<Void, List<FileItem>>() {
+            private volatile int scannedCount;
+            private volatile int matchedCount;
+
             @Override
-            protected List<FileItem> doInBackground() {
-                try {
-                    return storageService.searchObjectsRecursively(currentBucket, searchTerm);
-                } catch (StorageException ex) {
-                    ex.printStackTrace();
-                    return new ArrayList<>();
+            protected Void doInBackground() throws Exception {
+                storageService.searchObjectsRecursively(bucket, searchTerm, (matches, scanned) -> {
+                    scannedCount += scanned;
+                    matchedCount += matches.size();
+                    publish(matches);
+                    return !isCancelled();
+                });
+                return null;
+            }
+
+            @Override
+            protected void process(List<List<FileItem>> pages) {
+                for (List<FileItem> matches : pages) {
+                    searchTableModel.addItems(matches);
                 }
+                searchInfoLabel.setText("Scanned " + scannedCount + " keys / matched " + matchedCount);
             }
 
             @Override
             protected void done() {
+                searchButton.setEnabled(true);
+                cancelButton.setEnabled(false);
+                if (isCancelled()) {
+                    searchInfoLabel.setText("Cancelled after " + scannedCount + " keys - matched " + matchedCount);
+                    setStatus("Search cancelled");
+                    return;
+                }
                 try {
-                    List<FileItem> results = get();
-                    searchButton.setEnabled(true);
-                    
-                    if (results.isEmpty()) {
-                        setStatus("No files found containing '" + searchTerm + "'");
-                        JOptionPane.showMessageDialog(IBMCloudCOSClient.this, 
-                            "No files found containing '" + searchTerm + "'", 
-                            "Search Results", JOptionPane.INFORMATION_MESSAGE);
-                    } else {
-                        setStatus("Found " + results.size() + " file(s) containing '" + searchTerm + "'");
-                        showSearchResults(results, searchTerm);
-                    }
+                    get();
+                    String summary = matchedCount == 0
+                        ? "No files found matching '" + searchTerm + "'"
+                        : "Found " + matchedCount + " file(s) matching '" + searchTerm + "'";
+                    searchInfoLabel.setText(summary + " (" + scannedCount + " keys scanned)");
+                    setStatus(summary);
                 } catch (Exception ex) {
-                    searchButton.setEnabled(true);
+                    searchInfoLabel.setText("Search failed after " + scannedCount + " keys");
                     showError("Search failed: " + ex.getMessage());
                 }
             }
-        }.execute();
+        };
+
+        cancelButton.addActionListener(e -> searchWorker.cancel(false));
+        searchDialog.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                searchWorker.cancel(false);
+            }
+        });
+
+        showSearchResults(searchDialog, searchTableModel, searchInfoLabel, cancelButton);
+        searchWorker.execute();
     }
 
-    private void showSearchResults(List<FileItem> results, String searchTerm) {
-        // Create modal dialog
-        JDialog searchDialog = new JDialog(this, "Search Results - '" + searchTerm + "'", true);
+    private void showSearchResults(JDialog searchDialog, SearchResultsTableModel searchTableModel,
+                                   JLabel searchInfoLabel, JButton cancelButton) {
+        searchDialog.setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
         searchDialog.setSize(800, 500);
         searchDialog.setLocationRelativeTo(this);
         searchDialog.setLayout(new BorderLayout());
 
-        // Create results table
-        String[] columnNames = {"File Name", "Full Path", "Size", "Last Modified"};
-        DefaultTableModel searchTableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
-
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm");
-        
-        // Populate results
-        for (FileItem item : results) {
-            String fileName = item.getName().substring(item.getName().lastIndexOf('/') + 1);
-            String fullPath = item.getName();
-            String size = FileUtils.formatSize(item.getSize());
-            String date = item.getLastModified() != null ? dateFormat.format(item.getLastModified()) : "";
-            
-            searchTableModel.addRow(new Object[]{fileName, fullPath, size, date});
-        }
-
         JTable searchTable = new JTable(searchTableModel);
         searchTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         
@@ -724,7 +1435,7 @@ public class IBMCloudCOSClient extends JFrame {
         copyUrlButton.addActionListener(e -> {
             int selectedRow = searchTable.getSelectedRow();
             if (selectedRow >= 0) {
-                String fullPath = searchTableModel.getValueAt(selectedRow, 1).toString();
+                String fullPath = searchTableModel.getItem(selectedRow).getName();
                 String url = buildObjectUrl(currentBucket, fullPath);
                 copyToClipboard(url);
                 JOptionPane.showMessageDialog(searchDialog, "URL copied to clipboard!", 
@@ -740,7 +1451,7 @@ public class IBMCloudCOSClient extends JFrame {
         navigateButton.addActionListener(e -> {
             int selectedRow = searchTable.getSelectedRow();
             if (selectedRow >= 0) {
-                String fullPath = searchTableModel.getValueAt(selectedRow, 1).toString();
+                String fullPath = searchTableModel.getItem(selectedRow).getName();
                 navigateToFile(fullPath);
                 searchDialog.dispose();
             } else {
@@ -750,6 +1461,8 @@ public class IBMCloudCOSClient extends JFrame {
         });
         buttonPanel.add(navigateButton);
 
+        buttonPanel.add(cancelButton);
+
         JButton closeButton = new JButton("Close");
         closeButton.addActionListener(e -> searchDialog.dispose());
         buttonPanel.add(closeButton);
@@ -758,7 +1471,7 @@ public class IBMCloudCOSClient extends JFrame {
 
         // Info panel
         JPanel infoPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
-        infoPanel.add(new JLabel("Found " + results.size() + " file(s) containing '" + searchTerm + "'"));
+        infoPanel.add(searchInfoLabel);
         searchDialog.add(infoPanel, BorderLayout.NORTH);
 
         searchDialog.setVisible(true);
@@ -800,7 +1513,7 @@ public class IBMCloudCOSClient extends JFrame {
         SwingUtilities.invokeLater(() -> {
             String fileName = fullPath.substring(fullPath.lastIndexOf('/') + 1);
             for (int i = 0; i < tableModel.getRowCount(); i++) {
-                if (tableModel.getValueAt(i, 0).equals(fileName)) {
+                if (tableModel.getItem(i).getName().equals(fileName)) {
                     fileTable.setRowSelectionInterval(i, i);
                     fileTable.scrollRectToVisible(fileTable.getCellRect(i, 0, true));
                     break;
@@ -1,14 +1,21 @@
 package com.ibm.cos.client.auth;
 
+import com.ibm.cloud.objectstorage.AmazonClientException;
+import com.ibm.cloud.objectstorage.AmazonWebServiceRequest;
 import com.ibm.cloud.objectstorage.ClientConfiguration;
 import com.ibm.cloud.objectstorage.auth.AWSCredentials;
 import com.ibm.cloud.objectstorage.auth.AWSStaticCredentialsProvider;
 import com.ibm.cloud.objectstorage.auth.BasicAWSCredentials;
 import com.ibm.cloud.objectstorage.client.builder.AwsClientBuilder.EndpointConfiguration;
+import com.ibm.cloud.objectstorage.retry.PredefinedRetryPolicies;
+import com.ibm.cloud.objectstorage.retry.RetryPolicy;
 import com.ibm.cloud.objectstorage.services.s3.AmazonS3;
 import com.ibm.cloud.objectstorage.services.s3.AmazonS3ClientBuilder;
 import com.ibm.cos.client.model.Credentials;
 import com.ibm.cos.client.model.ConnectionConfig;
+import com.ibm.cos.client.model.PerformanceProfile;
+
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Implementation of authentication service for IBM Cloud Object Storage
@@ -23,8 +30,7 @@ public class IBMAuthenticationService implements AuthenticationService {
                 credentials.getSecretKey()
             );
             
-            ClientConfiguration clientConfig = new ClientConfiguration()
-                    .withRequestTimeout(config.getRequestTimeout());
+            ClientConfiguration clientConfig = createClientConfiguration(config.getProfile());
 
             AmazonS3 client = AmazonS3ClientBuilder
                     .standard()
@@ -40,6 +46,24 @@ public class IBMAuthenticationService implements AuthenticationService {
         }
     }
     
+    /**
+     * Applies a performance profile to the SDK client configuration
+     */
+    static ClientConfiguration createClientConfiguration(PerformanceProfile profile) {
+        return new ClientConfiguration()
+                .withMaxConnections(profile.getMaxConnections())
+                .withConnectionTTL(profile.getConnectionTtl())
+                .withTcpKeepAlive(profile.isTcpKeepAlive())
+                .withSocketBufferSizeHints(profile.getSocketSendBufferSize(), profile.getSocketReceiveBufferSize())
+                .withGzip(profile.isGzip())
+                .withConnectionTimeout(profile.getConnectionTimeout())
+                .withSocketTimeout(profile.getSocketTimeout())
+                .withRequestTimeout(profile.getRequestTimeout())
+                .withRetryPolicy(new RetryPolicy(PredefinedRetryPolicies.DEFAULT_RETRY_CONDITION,
+                        new JitteredBackoffStrategy(profile.getBaseRetryDelay(), profile.getMaxRetryDelay()),
+                        profile.getMaxErrorRetry(), false));
+    }
+    
     @Override
     public boolean validateConnection(AmazonS3 client) throws AuthenticationException {
         try {
@@ -49,4 +73,24 @@ public class IBMAuthenticationService implements AuthenticationService {
             throw new AuthenticationException("Connection validation failed", e);
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Exponential backoff with full jitter, so clients retrying together spread out
+     */
+    private static class JitteredBackoffStrategy implements RetryPolicy.BackoffStrategy {
+        private final int baseDelay;
+        private final int maxDelay;
+        
+        JitteredBackoffStrategy(int baseDelay, int maxDelay) {
+            this.baseDelay = baseDelay;
+            this.maxDelay = maxDelay;
+        }
+        
+        @Override
+        public long delayBeforeNextRetry(AmazonWebServiceRequest originalRequest, AmazonClientException exception,
+                                         int retriesAttempted) {
+            long ceiling = Math.min(maxDelay, (long) baseDelay << Math.min(retriesAttempted, 20));
+            return ThreadLocalRandom.current().nextLong(ceiling + 1);
+        }
+    }
+}
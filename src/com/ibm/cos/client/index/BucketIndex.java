@@ -0,0 +1,565 @@
+package com.ibm.cos.client.index;
+
+import com.ibm.cos.client.model.FileItem;
+import com.ibm.cos.client.model.SearchPattern;
+import com.ibm.cos.client.service.CloudStorageService;
+import com.ibm.cos.client.service.ListingPageListener;
+import com.ibm.cos.client.service.StorageException;
+import com.ibm.cos.client.util.KeyMatcher;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Local index of every key in a bucket with its size and modification time.
+ * <p>
+ * A full listing produces a snapshot stored compactly: all keys as UTF-8 in one byte
+ * array plus primitive columns for offsets, sizes and dates. Uploads and deletes made
+ * through this client are applied on top of the snapshot and appended to a change log,
+ * so the index stays current between rebuilds without listing the bucket again.
+ * Every log record carries its length and a checksum, so a record torn by a crash is
+ * cut off when the log is next read instead of corrupting the records after it.
+ */
+public class BucketIndex {
+    private static final int MAGIC = 0x434F5349;
+    private static final int VERSION = 1;
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final String LOG_SUFFIX = ".log";
+    private static final byte LOG_WRITE = 'W';
+    private static final byte LOG_DELETE = 'D';
+    /** Longer records cannot be valid: keys are at most 1,024 bytes */
+    private static final int MAX_LOG_RECORD = 1 << 16;
+
+    private final String bucketName;
+    private final File indexFile;
+    private final File logFile;
+
+    // Snapshot from the last full listing
+    private final byte[] keyData;
+    private final int[] keyOffsets;
+    private final long[] sizes;
+    private final long[] lastModified;
+    private final int count;
+    private final long builtAt;
+    /** Length of the change log when the listing behind a new snapshot started */
+    private final long logStart;
+
+    // Changes made through this client since the snapshot
+    private final TreeMap<String, long[]> written = new TreeMap<>();
+    private final Set<String> removed = new HashSet<>();
+    private long updatedAt;
+    /** The index that superseded this one; later changes are forwarded to it */
+    private BucketIndex replacement;
+    /** Kept open between changes, so a burst of changes does not reopen the log for each */
+    private DataOutputStream log;
+
+    private BucketIndex(String bucketName, File directory, byte[] keyData, int[] keyOffsets,
+                        long[] sizes, long[] lastModified, int count, long builtAt, long logStart) {
+        this.bucketName = bucketName;
+        this.indexFile = new File(directory, bucketName + INDEX_SUFFIX);
+        this.logFile = new File(directory, bucketName + LOG_SUFFIX);
+        this.keyData = keyData;
+        this.keyOffsets = keyOffsets;
+        this.sizes = sizes;
+        this.lastModified = lastModified;
+        this.count = count;
+        this.builtAt = builtAt;
+        this.logStart = logStart;
+        this.updatedAt = builtAt;
+    }
+
+    /**
+     * @return true if an index has been built for the bucket
+     */
+    public static boolean exists(File directory, String bucketName) {
+        return new File(directory, bucketName + INDEX_SUFFIX).isFile();
+    }
+
+    /**
+     * Removes the stored index of a bucket and its change log, so the bucket has to be indexed again
+     */
+    public static void delete(File directory, String bucketName) {
+        new File(directory, bucketName + INDEX_SUFFIX).delete();
+        new File(directory, bucketName + LOG_SUFFIX).delete();
+    }
+
+    /**
+     * Reads a stored index and replays the changes recorded since it was built
+     * @param directory the index directory
+     * @param bucketName the bucket name
+     * @return the index, or null if none has been built
+     * @throws IOException if the index cannot be read
+     */
+    public static BucketIndex load(File directory, String bucketName) throws IOException {
+        File indexFile = new File(directory, bucketName + INDEX_SUFFIX);
+        if (!indexFile.isFile()) {
+            return null;
+        }
+
+        BucketIndex index;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Unsupported index file: " + indexFile);
+            }
+            long builtAt = in.readLong();
+            int count = in.readInt();
+            int keyDataLength = in.readInt();
+
+            byte[] keyData = new byte[keyDataLength];
+            int[] keyOffsets = new int[count + 1];
+            long[] sizes = new long[count];
+            long[] lastModified = new long[count];
+            int position = 0;
+            for (int i = 0; i < count; i++) {
+                int length = in.readUnsignedShort();
+                in.readFully(keyData, position, length);
+                keyOffsets[i] = position;
+                position += length;
+                sizes[i] = in.readLong();
+                lastModified[i] = in.readLong();
+            }
+            keyOffsets[count] = position;
+            index = new BucketIndex(bucketName, directory, keyData, keyOffsets, sizes, lastModified, count, builtAt, 0);
+        }
+        index.replayLog();
+        return index;
+    }
+
+    /**
+     * Lists the whole bucket into a new index; install stores it in place of the earlier one
+     * @param storageService the service used for listing
+     * @param bucketName the bucket to index
+     * @param directory the index directory
+     * @param progressListener sees every listed page; returning false cancels the build (can be null)
+     * @return the new index, or null if the build was cancelled
+     * @throws StorageException if listing fails
+     */
+    public static BucketIndex build(CloudStorageService storageService, String bucketName, File directory,
+                                    ListingPageListener progressListener) throws StorageException {
+        long startedAt = System.currentTimeMillis();
+        // Changes logged from here on may be missing from the listing, so they outlive the rebuild
+        long logStart = new File(directory, bucketName + LOG_SUFFIX).length();
+        Builder builder = new Builder();
+        boolean[] cancelled = {false};
+        storageService.listObjectsRecursively(bucketName, null, page -> {
+            builder.addAll(page);
+            if (progressListener != null && !progressListener.onPage(page)) {
+                cancelled[0] = true;
+                return false;
+            }
+            return true;
+        });
+        if (cancelled[0]) {
+            return null;
+        }
+
+        return builder.build(bucketName, directory, startedAt, logStart);
+    }
+
+    /**
+     * Stores a freshly built index in place of the one in use. Changes logged since the build
+     * started are kept in the log and applied on top of the new snapshot, and changes recorded
+     * through the previous index from now on are forwarded to this one.
+     * @param previous the index in use until now, or null if none was loaded
+     * @throws IOException if the index cannot be written
+     */
+    public void install(BucketIndex previous) throws IOException {
+        if (previous == null) {
+            store();
+            return;
+        }
+        // The previous index appends under its own lock, so nothing is logged while the log is cut
+        synchronized (previous) {
+            store();
+            previous.replacement = this;
+            previous.close();
+        }
+    }
+
+    private synchronized void store() throws IOException {
+        save();
+        keepLogFrom(logStart);
+        replayLog();
+    }
+
+    /**
+     * Finds every indexed key matching the pattern.
+     * Snapshot keys are filtered in place: by the plain-text term, with the same case folding
+     * as a listing search, or on their UTF-8 bytes by the pattern's listing prefix;
+     * only keys that pass become Strings.
+     * @param searchPattern the compiled search pattern
+     * @return matching files
+     */
+    public synchronized List<FileItem> search(SearchPattern searchPattern) {
+        boolean substring = searchPattern.getMode() == SearchPattern.Mode.SUBSTRING;
+        KeyMatcher matcher = substring ? new KeyMatcher(searchPattern.getTerm()) : null;
+        byte[] filter = searchPattern.getListingPrefix().getBytes(StandardCharsets.UTF_8);
+        char[] chars = new char[256];
+        List<FileItem> matches = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            boolean candidate;
+            if (substring) {
+                int length = keyOffsets[i + 1] - keyOffsets[i];
+                if (length > chars.length) {
+                    chars = new char[length];
+                }
+                candidate = matcher.matches(chars, 0, decode(keyData, keyOffsets[i], keyOffsets[i + 1], chars));
+            } else {
+                candidate = startsWith(keyData, keyOffsets[i], keyOffsets[i + 1], filter);
+            }
+            if (candidate) {
+                String key = new String(keyData, keyOffsets[i], keyOffsets[i + 1] - keyOffsets[i], StandardCharsets.UTF_8);
+                if (!isRemoved(key) && (substring || searchPattern.matches(key))) {
+                    matches.add(new FileItem(key, FileItem.ItemType.FILE, sizes[i], new Date(lastModified[i])));
+                }
+            }
+        }
+        for (Map.Entry<String, long[]> entry : written.entrySet()) {
+            if (searchPattern.matches(entry.getKey())) {
+                long[] values = entry.getValue();
+                matches.add(new FileItem(entry.getKey(), FileItem.ItemType.FILE, values[0], new Date(values[1])));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Records an object written through this client
+     */
+    public synchronized void recordWrite(String key, long size, long modified) {
+        if (replacement != null) {
+            replacement.recordWrite(key, size, modified);
+            return;
+        }
+        written.put(key, new long[]{size, modified});
+        removed.add(key);
+        appendToLog(LOG_WRITE, key, size, modified);
+        flushLog();
+    }
+
+    /**
+     * Records an object copied through this client, taking its size from the source's entry
+     * @param sourceKey the copied key
+     * @param destinationKey the key of the copy
+     * @param modified when the copy was made, in epoch milliseconds
+     */
+    public synchronized void recordCopy(String sourceKey, String destinationKey, long modified) {
+        if (replacement != null) {
+            replacement.recordCopy(sourceKey, destinationKey, modified);
+            return;
+        }
+        recordWrite(destinationKey, sizeOf(sourceKey), modified);
+    }
+
+    /**
+     * Records an object deleted through this client
+     */
+    public synchronized void recordDelete(String key) {
+        if (replacement != null) {
+            replacement.recordDelete(key);
+            return;
+        }
+        written.remove(key);
+        removed.add(key);
+        appendToLog(LOG_DELETE, key, 0, 0);
+        flushLog();
+    }
+
+    /**
+     * Records a batch of objects deleted through this client, written to the log in one go
+     */
+    public synchronized void recordDeletes(Collection<String> keys) {
+        if (replacement != null) {
+            replacement.recordDeletes(keys);
+            return;
+        }
+        for (String key : keys) {
+            written.remove(key);
+            removed.add(key);
+            appendToLog(LOG_DELETE, key, 0, 0);
+        }
+        flushLog();
+    }
+
+    /**
+     * Closes the change log; a later change opens it again
+     */
+    public synchronized void close() {
+        if (log != null) {
+            try {
+                log.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            log = null;
+        }
+    }
+
+    public String getBucketName() {
+        return bucketName;
+    }
+
+    /**
+     * @return the number of keys in the snapshot, not counting later changes
+     */
+    public int getSnapshotCount() {
+        return count;
+    }
+
+    /**
+     * @return when the full listing behind the snapshot started, in epoch milliseconds
+     */
+    public long getBuiltAt() {
+        return builtAt;
+    }
+
+    /**
+     * @return when the index last changed, in epoch milliseconds
+     */
+    public synchronized long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * @return the indexed size of a key, or 0 if the key is not indexed
+     */
+    private long sizeOf(String key) {
+        long[] values = written.get(key);
+        if (values != null) {
+            return values[0];
+        }
+        if (isRemoved(key)) {
+            return 0;
+        }
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < count; i++) {
+            if (keyOffsets[i + 1] - keyOffsets[i] == bytes.length
+                    && startsWith(keyData, keyOffsets[i], keyOffsets[i + 1], bytes)) {
+                return sizes[i];
+            }
+        }
+        return 0;
+    }
+
+    private boolean isRemoved(String key) {
+        return removed.contains(key);
+    }
+
+    /**
+     * Decodes a UTF-8 key into a reusable array, which must hold at least as many chars as the key has bytes
+     * @return the number of chars
+     */
+    private static int decode(byte[] data, int start, int end, char[] chars) {
+        for (int i = start; i < end; i++) {
+            if (data[i] < 0) {
+                // Keys are mostly ASCII; the rest take the JDK decoder
+                String key = new String(data, start, end - start, StandardCharsets.UTF_8);
+                key.getChars(0, key.length(), chars, 0);
+                return key.length();
+            }
+            chars[i - start] = (char) data[i];
+        }
+        return end - start;
+    }
+
+    private static boolean startsWith(byte[] data, int start, int end, byte[] prefix) {
+        if (end - start < prefix.length) {
+            return false;
+        }
+        for (int j = 0; j < prefix.length; j++) {
+            if (data[start + j] != prefix[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Cuts the change log down to the records appended from the given length on
+     */
+    private void keepLogFrom(long start) throws IOException {
+        long length = logFile.length();
+        if (start <= 0 || !logFile.isFile()) {
+            return;
+        }
+        if (start >= length) {
+            logFile.delete();
+            return;
+        }
+        File temp = new File(logFile.getPath() + ".tmp");
+        try (RandomAccessFile in = new RandomAccessFile(logFile, "r");
+             OutputStream out = new BufferedOutputStream(new FileOutputStream(temp))) {
+            in.seek(start);
+            byte[] buffer = new byte[1 << 16];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+        }
+        Files.move(temp.toPath(), logFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void save() throws IOException {
+        File temp = new File(indexFile.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(builtAt);
+            out.writeInt(count);
+            out.writeInt(keyOffsets[count]);
+            for (int i = 0; i < count; i++) {
+                out.writeShort(keyOffsets[i + 1] - keyOffsets[i]);
+                out.write(keyData, keyOffsets[i], keyOffsets[i + 1] - keyOffsets[i]);
+                out.writeLong(sizes[i]);
+                out.writeLong(lastModified[i]);
+            }
+        }
+        Files.move(temp.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Writes one framed record: its length, the record and its checksum. Records are
+     * buffered until flushLog.
+     */
+    private void appendToLog(byte type, String key, long size, long modified) {
+        updatedAt = System.currentTimeMillis();
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(key.length() + 32);
+            DataOutputStream record = new DataOutputStream(bytes);
+            record.writeByte(type);
+            record.writeUTF(key);
+            record.writeLong(size);
+            record.writeLong(modified);
+            record.writeLong(updatedAt);
+
+            if (log == null) {
+                log = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(logFile, true)));
+            }
+            log.writeInt(bytes.size());
+            bytes.writeTo(log);
+            log.writeInt(checksum(bytes.toByteArray()));
+        } catch (IOException e) {
+            // The change is still applied in memory; a rebuild picks it up for good
+            e.printStackTrace();
+            close();
+        }
+    }
+
+    private void flushLog() {
+        if (log == null) {
+            return;
+        }
+        try {
+            log.flush();
+        } catch (IOException e) {
+            e.printStackTrace();
+            close();
+        }
+    }
+
+    /**
+     * Applies the logged changes, up to the first record that is incomplete or damaged.
+     * The log is cut back to the last good record, so later appends are readable again.
+     */
+    private void replayLog() throws IOException {
+        if (!logFile.isFile()) {
+            return;
+        }
+        long valid = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(logFile)))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (length <= 0 || length > MAX_LOG_RECORD) {
+                    break;
+                }
+                byte[] record = new byte[length];
+                in.readFully(record);
+                if (in.readInt() != checksum(record)) {
+                    break;
+                }
+                applyRecord(record);
+                valid += length + 8;
+            }
+        } catch (EOFException e) {
+            // A crash mid-append leaves a truncated last record; everything before it is valid
+        }
+        if (valid < logFile.length()) {
+            try (RandomAccessFile file = new RandomAccessFile(logFile, "rw")) {
+                file.setLength(valid);
+            }
+        }
+    }
+
+    private void applyRecord(byte[] record) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+        byte type = in.readByte();
+        String key = in.readUTF();
+        long size = in.readLong();
+        long modified = in.readLong();
+        updatedAt = in.readLong();
+        if (type == LOG_WRITE) {
+            written.put(key, new long[]{size, modified});
+            removed.add(key);
+        } else if (type == LOG_DELETE) {
+            written.remove(key);
+            removed.add(key);
+        }
+    }
+
+    private static int checksum(byte[] record) {
+        CRC32 crc = new CRC32();
+        crc.update(record, 0, record.length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Accumulates listing pages into growable primitive columns
+     */
+    private static class Builder {
+        private byte[] keyData = new byte[1 << 16];
+        private int[] keyOffsets = new int[1024];
+        private long[] sizes = new long[1024];
+        private long[] lastModified = new long[1024];
+        private int count;
+        private int position;
+
+        void addAll(List<FileItem> items) {
+            for (FileItem item : items) {
+                byte[] key = item.getName().getBytes(StandardCharsets.UTF_8);
+                if (count + 1 >= keyOffsets.length) {
+                    int capacity = keyOffsets.length * 2;
+                    keyOffsets = Arrays.copyOf(keyOffsets, capacity);
+                    sizes = Arrays.copyOf(sizes, capacity);
+                    lastModified = Arrays.copyOf(lastModified, capacity);
+                }
+                if (position + key.length > keyData.length) {
+                    keyData = Arrays.copyOf(keyData, Math.max(keyData.length * 2, position + key.length));
+                }
+                System.arraycopy(key, 0, keyData, position, key.length);
+                keyOffsets[count] = position;
+                sizes[count] = item.getSize();
+                Date modified = item.getLastModified();
+                lastModified[count] = modified != null ? modified.getTime() : 0;
+                position += key.length;
+                count++;
+            }
+        }
+
+        BucketIndex build(String bucketName, File directory, long builtAt, long logStart) {
+            keyOffsets[count] = position;
+            return new BucketIndex(bucketName, directory, Arrays.copyOf(keyData, position),
+                    Arrays.copyOf(keyOffsets, count + 1), Arrays.copyOf(sizes, count),
+                    Arrays.copyOf(lastModified, count), count, builtAt, logStart);
+        }
+    }
+}
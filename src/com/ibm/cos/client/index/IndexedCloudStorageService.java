@@ -0,0 +1,281 @@
+package com.ibm.cos.client.index;
+
+import com.ibm.cos.client.model.FileItem;
+import com.ibm.cos.client.model.SearchPattern;
+import com.ibm.cos.client.service.*;
+import com.ibm.cos.client.util.DaemonThreadFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Decorator that answers searches from a local bucket index when one has been built,
+ * and keeps that index current with the uploads, copies and deletes made through it.
+ * Keeping the index never fails a change the server has made: indexes are loaded in the
+ * background, and an index that cannot be read or updated is dropped to be rebuilt.
+ * Follows Open/Closed Principle - adds indexing without changing the wrapped service.
+ */
+public class IndexedCloudStorageService implements CloudStorageService {
+    private final CloudStorageService delegate;
+    private final File indexDirectory;
+    private final Map<String, BucketIndex> indexes = new ConcurrentHashMap<>();
+    /** Changes made while a stored index is being loaded; also guards publishing an index */
+    private final Map<String, List<Consumer<BucketIndex>>> pendingChanges = new HashMap<>();
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(new DaemonThreadFactory("index-loader"));
+
+    public IndexedCloudStorageService(CloudStorageService delegate, File indexDirectory) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate cannot be null");
+        }
+        if (indexDirectory == null) {
+            throw new IllegalArgumentException("Index directory cannot be null");
+        }
+        
+        this.delegate = delegate;
+        this.indexDirectory = indexDirectory;
+    }
+
+    /**
+     * Returns the index of a bucket, loading it from disk the first time.
+     * A stored index that cannot be read is removed, so the bucket has to be indexed again.
+     * @param bucketName the bucket name
+     * @return the index, or null if none has been built
+     */
+    public BucketIndex getIndex(String bucketName) {
+        BucketIndex index = indexes.get(bucketName);
+        if (index != null || !BucketIndex.exists(indexDirectory, bucketName)) {
+            return index;
+        }
+        synchronized (this) {
+            index = indexes.get(bucketName);
+            if (index == null) {
+                try {
+                    index = BucketIndex.load(indexDirectory, bucketName);
+                } catch (IOException | RuntimeException e) {
+                    e.printStackTrace();
+                    synchronized (pendingChanges) {
+                        pendingChanges.remove(bucketName);
+                        BucketIndex.delete(indexDirectory, bucketName);
+                    }
+                    return null;
+                }
+                if (index != null) {
+                    publish(bucketName, index);
+                }
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Lists the whole bucket and replaces its index
+     * @param bucketName the bucket name
+     * @param progressListener sees every listed page; returning false cancels the build (can be null)
+     * @return the new index, or null if the build was cancelled
+     * @throws StorageException if listing fails or the index cannot be written
+     */
+    public BucketIndex buildIndex(String bucketName, ListingPageListener progressListener) throws StorageException {
+        BucketIndex index = BucketIndex.build(delegate, bucketName, indexDirectory, progressListener);
+        if (index == null) {
+            return null;
+        }
+        try {
+            // Under the lock getIndex loads with, so the index being replaced is the one writers see
+            synchronized (this) {
+                index.install(indexes.get(bucketName));
+                publish(bucketName, index);
+            }
+            return index;
+        } catch (IOException e) {
+            throw new StorageException("Failed to write index of bucket: " + bucketName, e);
+        }
+    }
+
+    @Override
+    public List<String> listBuckets() throws StorageException {
+        return delegate.listBuckets();
+    }
+
+    @Override
+    public List<FileItem> listObjects(String bucketName, String prefix) throws StorageException {
+        return delegate.listObjects(bucketName, prefix);
+    }
+
+    @Override
+    public void listObjects(String bucketName, String prefix, ListingPageListener listener) throws StorageException {
+        delegate.listObjects(bucketName, prefix, listener);
+    }
+
+    @Override
+    public void listObjectsRecursively(String bucketName, String prefix, ListingPageListener listener) throws StorageException {
+        delegate.listObjectsRecursively(bucketName, prefix, listener);
+    }
+
+    @Override
+    public String uploadFile(String bucketName, String key, File file) throws StorageException {
+        String eTag = delegate.uploadFile(bucketName, key, file);
+        recordWrite(bucketName, key, file);
+        return eTag;
+    }
+
+    @Override
+    public String uploadFile(String bucketName, String key, File file, TransferProgressListener progressListener) throws StorageException {
+        String eTag = delegate.uploadFile(bucketName, key, file, progressListener);
+        recordWrite(bucketName, key, file);
+        return eTag;
+    }
+
+    @Override
+    public String resumeUpload(String bucketName, String key, File file, String uploadId, long partSize,
+                               TransferProgressListener progressListener) throws StorageException {
+        String eTag = delegate.resumeUpload(bucketName, key, file, uploadId, partSize, progressListener);
+        recordWrite(bucketName, key, file);
+        return eTag;
+    }
+
+    @Override
+    public void abortUpload(String bucketName, String key, String uploadId) throws StorageException {
+        delegate.abortUpload(bucketName, key, uploadId);
+    }
+
+    @Override
+    public void downloadFile(String bucketName, String key, File targetFile) throws StorageException {
+        delegate.downloadFile(bucketName, key, targetFile);
+    }
+
+    @Override
+    public void downloadFile(String bucketName, String key, File targetFile, TransferProgressListener progressListener) throws StorageException {
+        delegate.downloadFile(bucketName, key, targetFile, progressListener);
+    }
+
+    @Override
+    public void deleteObject(String bucketName, String key) throws StorageException {
+        delegate.deleteObject(bucketName, key);
+        record(bucketName, index -> index.recordDelete(key));
+    }
+
+    @Override
+    public DeleteResult deleteObjects(String bucketName, Collection<String> keys) throws StorageException {
+        DeleteResult result = delegate.deleteObjects(bucketName, keys);
+        List<String> deleted = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            if (!result.getFailures().containsKey(key)) {
+                deleted.add(key);
+            }
+        }
+        record(bucketName, index -> index.recordDeletes(deleted));
+        return result;
+    }
+
+    @Override
+    public void copyObject(String bucketName, String sourceKey, String destinationKey) throws StorageException {
+        delegate.copyObject(bucketName, sourceKey, destinationKey);
+        long modified = System.currentTimeMillis();
+        record(bucketName, index -> index.recordCopy(sourceKey, destinationKey, modified));
+    }
+
+    @Override
+    public void copyObject(String bucketName, String sourceKey, String destinationKey, long size) throws StorageException {
+        delegate.copyObject(bucketName, sourceKey, destinationKey, size);
+        long modified = System.currentTimeMillis();
+        record(bucketName, index -> index.recordWrite(destinationKey, size, modified));
+    }
+
+    @Override
+    public void moveObject(String bucketName, String sourceKey, String destinationKey) throws StorageException {
+        delegate.moveObject(bucketName, sourceKey, destinationKey);
+        long modified = System.currentTimeMillis();
+        record(bucketName, index -> {
+            index.recordCopy(sourceKey, destinationKey, modified);
+            index.recordDelete(sourceKey);
+        });
+    }
+
+    @Override
+    public List<FileItem> searchObjectsRecursively(String bucketName, String searchTerm) throws StorageException {
+        BucketIndex index = getIndex(bucketName);
+        if (index == null) {
+            return delegate.searchObjectsRecursively(bucketName, searchTerm);
+        }
+        return index.search(SearchPattern.compile(searchTerm));
+    }
+
+    @Override
+    public void searchObjectsRecursively(String bucketName, String searchTerm, SearchResultListener listener) throws StorageException {
+        BucketIndex index = getIndex(bucketName);
+        if (index == null) {
+            delegate.searchObjectsRecursively(bucketName, searchTerm, listener);
+        } else {
+            listener.onResults(index.search(SearchPattern.compile(searchTerm)), index.getSnapshotCount());
+        }
+    }
+
+    private void recordWrite(String bucketName, String key, File file) {
+        // The server's timestamp is not returned by the upload; the local clock is close enough to sort by
+        long size = file.length();
+        long modified = System.currentTimeMillis();
+        record(bucketName, index -> index.recordWrite(key, size, modified));
+    }
+
+    /**
+     * Applies a change the server has made to the bucket's index, if it has one. A stored index
+     * that is not loaded yet gets the change once the background loader has read it, so the
+     * calling transfer never waits for a load. Nothing here fails the change itself.
+     */
+    private void record(String bucketName, Consumer<BucketIndex> change) {
+        BucketIndex index = indexes.get(bucketName);
+        if (index == null) {
+            synchronized (pendingChanges) {
+                index = indexes.get(bucketName);
+                if (index == null) {
+                    if (BucketIndex.exists(indexDirectory, bucketName)) {
+                        List<Consumer<BucketIndex>> changes = pendingChanges.get(bucketName);
+                        if (changes == null) {
+                            changes = new ArrayList<>();
+                            pendingChanges.put(bucketName, changes);
+                            loader.execute(() -> getIndex(bucketName));
+                        }
+                        changes.add(change);
+                    }
+                    return;
+                }
+            }
+        }
+        apply(bucketName, index, change);
+    }
+
+    /**
+     * Makes a loaded or rebuilt index the one changes go to, after the changes made while it was loading
+     */
+    private void publish(String bucketName, BucketIndex index) {
+        synchronized (pendingChanges) {
+            List<Consumer<BucketIndex>> changes = pendingChanges.remove(bucketName);
+            if (changes != null) {
+                for (Consumer<BucketIndex> change : changes) {
+                    apply(bucketName, index, change);
+                }
+            }
+            indexes.put(bucketName, index);
+        }
+    }
+
+    private void apply(String bucketName, BucketIndex index, Consumer<BucketIndex> change) {
+        try {
+            change.accept(index);
+        } catch (RuntimeException e) {
+            // An index that missed a change would hide or invent keys; drop it to be rebuilt
+            e.printStackTrace();
+            synchronized (pendingChanges) {
+                if (indexes.remove(bucketName, index)) {
+                    index.close();
+                    BucketIndex.delete(indexDirectory, bucketName);
+                }
+            }
+        }
+    }
+}
@@ -6,26 +6,37 @@ package com.ibm.cos.client.model;
 public class ConnectionConfig {
     private final String endpoint;
     private final String region;
-    private final int requestTimeout;
+    private final PerformanceProfile profile;
     
     public ConnectionConfig(String endpoint, String region) {
-        this(endpoint, region, 5000);
+        this(endpoint, region, PerformanceProfile.LAN);
     }
     
     public ConnectionConfig(String endpoint, String region, int requestTimeout) {
+        this(endpoint, region, PerformanceProfile.LAN.withRequestTimeout(checkTimeout(requestTimeout)));
+    }
+    
+    public ConnectionConfig(String endpoint, String region, PerformanceProfile profile) {
         if (endpoint == null || endpoint.trim().isEmpty()) {
             throw new IllegalArgumentException("Endpoint cannot be null or empty");
         }
         if (region == null || region.trim().isEmpty()) {
             throw new IllegalArgumentException("Region cannot be null or empty");
         }
-        if (requestTimeout <= 0) {
-            throw new IllegalArgumentException("Request timeout must be positive");
+        if (profile == null) {
+            throw new IllegalArgumentException("Performance profile cannot be null");
         }
         
         this.endpoint = endpoint.trim();
         this.region = region.trim();
-        this.requestTimeout = requestTimeout;
+        this.profile = profile;
+    }
+    
+    private static int checkTimeout(int requestTimeout) {
+        if (requestTimeout <= 0) {
+            throw new IllegalArgumentException("Request timeout must be positive");
+        }
+        return requestTimeout;
     }
     
     public String getEndpoint() {
@@ -36,7 +47,14 @@ public class ConnectionConfig {
         return region;
     }
     
+    /**
+     * @return the request timeout in milliseconds, 0 for no limit
+     */
     public int getRequestTimeout() {
-        return requestTimeout;
+        return profile.getRequestTimeout();
+    }
+    
+    public PerformanceProfile getProfile() {
+        return profile;
     }
-}
\ No newline at end of file
+}
@@ -6,16 +6,23 @@ import java.util.Date;
  * Represents a file or folder item in the object storage
  */
 public class FileItem {
+    public static final long UNKNOWN_TIME = Long.MIN_VALUE;
+    
     private final String name;
     private final ItemType type;
     private final long size;
     private final Date lastModified;
+    private final String eTag;
     
     public enum ItemType {
         FILE, FOLDER
     }
     
     public FileItem(String name, ItemType type, long size, Date lastModified) {
+        this(name, type, size, lastModified, null);
+    }
+    
+    public FileItem(String name, ItemType type, long size, Date lastModified, String eTag) {
         if (name == null || name.isEmpty()) {
             throw new IllegalArgumentException("Name cannot be null or empty");
         }
@@ -27,6 +34,7 @@ public class FileItem {
         this.type = type;
         this.size = size;
         this.lastModified = lastModified != null ? new Date(lastModified.getTime()) : null;
+        this.eTag = eTag;
     }
     
     public String getName() {
@@ -45,6 +53,21 @@ public class FileItem {
         return lastModified != null ? new Date(lastModified.getTime()) : null;
     }
     
+    /**
+     * @return the modification time in epoch milliseconds, or {@link #UNKNOWN_TIME}; unlike
+     *         getLastModified() this does not copy the date
+     */
+    public long getLastModifiedTime() {
+        return lastModified != null ? lastModified.getTime() : UNKNOWN_TIME;
+    }
+    
+    /**
+     * @return the object's ETag as listed, or null when the listing did not carry one
+     */
+    public String getETag() {
+        return eTag;
+    }
+    
     public boolean isFile() {
         return type == ItemType.FILE;
     }
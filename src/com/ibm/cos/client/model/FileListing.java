@@ -0,0 +1,198 @@
+package com.ibm.cos.client.model;
+
+import com.ibm.cos.client.util.IndexSorter;
+import com.ibm.cos.client.util.KeyMatcher;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Compact, growable store for the items of a listing.
+ * <p>
+ * Instead of one object per item, the listing keeps columns: every name, with the
+ * shared prefix stripped, in one char array; sizes and modification times in
+ * long arrays; folders in a bit set. A million items cost a few arrays rather
+ * than millions of Strings, Dates and FileItems, and names can be matched and
+ * compared in place.
+ */
+public class FileListing {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final String prefix;
+    private char[] names = new char[INITIAL_CAPACITY * 16];
+    private int[] nameOffsets = new int[INITIAL_CAPACITY + 1];
+    private long[] sizes = new long[INITIAL_CAPACITY];
+    private long[] lastModified = new long[INITIAL_CAPACITY];
+    private final BitSet folders = new BitSet();
+    private int count;
+    private int[] nameRanks;
+    private int rankedCount;
+
+    /**
+     * @param prefix the prefix shared by every key in the listing; names are stored without it
+     */
+    public FileListing(String prefix) {
+        this.prefix = prefix != null ? prefix : "";
+    }
+
+    /**
+     * Appends an item
+     * @param name the name relative to the listing prefix
+     * @param folder true for a folder
+     * @param size the size in bytes
+     * @param modified the modification time in epoch milliseconds, or {@link FileItem#UNKNOWN_TIME}
+     */
+    public void add(String name, boolean folder, long size, long modified) {
+        if (count == sizes.length) {
+            int capacity = count * 2;
+            nameOffsets = Arrays.copyOf(nameOffsets, capacity + 1);
+            sizes = Arrays.copyOf(sizes, capacity);
+            lastModified = Arrays.copyOf(lastModified, capacity);
+        }
+        int start = nameOffsets[count];
+        int end = start + name.length();
+        if (end > names.length) {
+            names = Arrays.copyOf(names, Math.max(names.length * 2, end));
+        }
+        name.getChars(0, name.length(), names, start);
+        nameOffsets[count + 1] = end;
+        sizes[count] = size;
+        lastModified[count] = modified;
+        folders.set(count, folder);
+        count++;
+    }
+
+    /**
+     * Appends items whose names are already relative to the listing prefix
+     * @param items the items to add
+     */
+    public void addAll(List<FileItem> items) {
+        for (FileItem item : items) {
+            add(item.getName(), item.isFolder(), item.getSize(), item.getLastModifiedTime());
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * @return the name of an item, relative to the listing prefix
+     */
+    public String getName(int index) {
+        checkIndex(index);
+        return new String(names, nameOffsets[index], nameOffsets[index + 1] - nameOffsets[index]);
+    }
+
+    /**
+     * @return the full key of an item
+     */
+    public String getKey(int index) {
+        return prefix + getName(index);
+    }
+
+    public boolean isFolder(int index) {
+        checkIndex(index);
+        return folders.get(index);
+    }
+
+    public long getSize(int index) {
+        checkIndex(index);
+        return sizes[index];
+    }
+
+    /**
+     * @return the modification time in epoch milliseconds, or {@link FileItem#UNKNOWN_TIME}
+     */
+    public long getLastModified(int index) {
+        checkIndex(index);
+        return lastModified[index];
+    }
+
+    /**
+     * Creates a standalone item for code that works with FileItem
+     * @param index the item index
+     * @return the item, named relative to the listing prefix
+     */
+    public FileItem getItem(int index) {
+        long modified = getLastModified(index);
+        return new FileItem(getName(index), isFolder(index) ? FileItem.ItemType.FOLDER : FileItem.ItemType.FILE,
+                sizes[index], modified != FileItem.UNKNOWN_TIME ? new Date(modified) : null);
+    }
+
+    /**
+     * @return true if the name of the item contains the matcher's term
+     */
+    public boolean nameMatches(int index, KeyMatcher matcher) {
+        checkIndex(index);
+        return matcher.matches(names, nameOffsets[index], nameOffsets[index + 1]);
+    }
+
+    /**
+     * Compares the names of two items ignoring case, without creating Strings
+     */
+    public int compareNames(int first, int second) {
+        checkIndex(first);
+        checkIndex(second);
+        int i = nameOffsets[first];
+        int j = nameOffsets[second];
+        int firstEnd = nameOffsets[first + 1];
+        int secondEnd = nameOffsets[second + 1];
+        while (i < firstEnd && j < secondEnd) {
+            char a = names[i++];
+            char b = names[j++];
+            if (a != b) {
+                a = fold(a);
+                b = fold(b);
+                if (a != b) {
+                    return a - b;
+                }
+            }
+        }
+        return (firstEnd - nameOffsets[first]) - (secondEnd - nameOffsets[second]);
+    }
+
+    /**
+     * Ranks every item by name, in the order of compareNames. Items with equal names share a rank.
+     * The ranks are computed once and kept until items are added, so sorting by name again
+     * only has to order ints.
+     * @return the rank of each item, between 0 and size() - 1; must not be modified
+     */
+    public synchronized int[] getNameRanks() {
+        if (nameRanks != null && rankedCount == count) {
+            return nameRanks;
+        }
+        int[] sorted = new int[count];
+        for (int i = 0; i < count; i++) {
+            sorted[i] = i;
+        }
+        IndexSorter.sort(sorted, this::compareNames);
+
+        int[] ranks = new int[count];
+        for (int i = 1; i < count; i++) {
+            ranks[sorted[i]] = compareNames(sorted[i - 1], sorted[i]) == 0 ? ranks[sorted[i - 1]] : i;
+        }
+        nameRanks = ranks;
+        rankedCount = count;
+        return ranks;
+    }
+
+    private static char fold(char c) {
+        if (c < 128) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + count);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.ibm.cos.client.model;
+
+/**
+ * HTTP client tuning for a kind of network: connection pool, timeouts,
+ * socket buffers, retries and compression.
+ * Presets cover a local network, a long-distance link and bulk transfers;
+ * the with methods derive adjusted copies.
+ */
+public class PerformanceProfile {
+    /** Low latency: few retries, short backoff, OS socket buffers */
+    public static final PerformanceProfile LAN = new PerformanceProfile("LAN",
+            64, 60_000, true, 0, 0, 3, 100, 2_000, false, 5_000, 30_000, 30_000);
+    /** High latency or lossy links: larger socket buffers for the bandwidth-delay product, patient retries */
+    public static final PerformanceProfile WAN = new PerformanceProfile("WAN",
+            64, 30_000, true, 1024 * 1024, 1024 * 1024, 6, 200, 20_000, false, 10_000, 60_000, 0);
+    /** Many large parallel transfers: a wide pool, large buffers, long-lived connections */
+    public static final PerformanceProfile BULK = new PerformanceProfile("Bulk",
+            256, 300_000, true, 4 * 1024 * 1024, 4 * 1024 * 1024, 10, 500, 30_000, false, 10_000, 120_000, 0);
+
+    private final String name;
+    private final int maxConnections;
+    private final long connectionTtl;
+    private final boolean tcpKeepAlive;
+    private final int socketSendBufferSize;
+    private final int socketReceiveBufferSize;
+    private final int maxErrorRetry;
+    private final int baseRetryDelay;
+    private final int maxRetryDelay;
+    private final boolean gzip;
+    private final int connectionTimeout;
+    private final int socketTimeout;
+    private final int requestTimeout;
+
+    private PerformanceProfile(String name, int maxConnections, long connectionTtl, boolean tcpKeepAlive,
+                               int socketSendBufferSize, int socketReceiveBufferSize, int maxErrorRetry,
+                               int baseRetryDelay, int maxRetryDelay, boolean gzip, int connectionTimeout,
+                               int socketTimeout, int requestTimeout) {
+        if (maxConnections <= 0) {
+            throw new IllegalArgumentException("Max connections must be positive");
+        }
+        if (socketSendBufferSize < 0 || socketReceiveBufferSize < 0) {
+            throw new IllegalArgumentException("Socket buffer sizes cannot be negative");
+        }
+        if (maxErrorRetry < 0) {
+            throw new IllegalArgumentException("Max error retry cannot be negative");
+        }
+        if (baseRetryDelay <= 0 || maxRetryDelay < baseRetryDelay) {
+            throw new IllegalArgumentException("Retry delays must be positive, with the maximum at least the base");
+        }
+        if (connectionTimeout < 0 || socketTimeout < 0 || requestTimeout < 0) {
+            throw new IllegalArgumentException("Timeouts cannot be negative");
+        }
+
+        this.name = name;
+        this.maxConnections = maxConnections;
+        this.connectionTtl = connectionTtl;
+        this.tcpKeepAlive = tcpKeepAlive;
+        this.socketSendBufferSize = socketSendBufferSize;
+        this.socketReceiveBufferSize = socketReceiveBufferSize;
+        this.maxErrorRetry = maxErrorRetry;
+        this.baseRetryDelay = baseRetryDelay;
+        this.maxRetryDelay = maxRetryDelay;
+        this.gzip = gzip;
+        this.connectionTimeout = connectionTimeout;
+        this.socketTimeout = socketTimeout;
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * @return the presets, for selection in the UI
+     */
+    public static PerformanceProfile[] presets() {
+        return new PerformanceProfile[]{LAN, WAN, BULK};
+    }
+
+    public PerformanceProfile withMaxConnections(int maxConnections) {
+        return new PerformanceProfile(name, maxConnections, connectionTtl, tcpKeepAlive, socketSendBufferSize,
+                socketReceiveBufferSize, maxErrorRetry, baseRetryDelay, maxRetryDelay, gzip, connectionTimeout,
+                socketTimeout, requestTimeout);
+    }
+
+    public PerformanceProfile withRequestTimeout(int requestTimeout) {
+        return new PerformanceProfile(name, maxConnections, connectionTtl, tcpKeepAlive, socketSendBufferSize,
+                socketReceiveBufferSize, maxErrorRetry, baseRetryDelay, maxRetryDelay, gzip, connectionTimeout,
+                socketTimeout, requestTimeout);
+    }
+
+    public PerformanceProfile withGzip(boolean gzip) {
+        return new PerformanceProfile(name, maxConnections, connectionTtl, tcpKeepAlive, socketSendBufferSize,
+                socketReceiveBufferSize, maxErrorRetry, baseRetryDelay, maxRetryDelay, gzip, connectionTimeout,
+                socketTimeout, requestTimeout);
+    }
+
+    /**
+     * Widens the connection pool so the given number of concurrent requests never wait for a connection
+     * @param concurrentRequests the most requests the application runs at once
+     * @return this profile, or a copy with a larger pool
+     */
+    public PerformanceProfile withConnectionsFor(int concurrentRequests) {
+        return concurrentRequests > maxConnections ? withMaxConnections(concurrentRequests) : this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the size of the HTTP connection pool
+     */
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * @return how long a pooled connection may be reused, in milliseconds; -1 for no limit
+     */
+    public long getConnectionTtl() {
+        return connectionTtl;
+    }
+
+    public boolean isTcpKeepAlive() {
+        return tcpKeepAlive;
+    }
+
+    /**
+     * @return the socket send buffer size hint in bytes; 0 leaves it to the operating system
+     */
+    public int getSocketSendBufferSize() {
+        return socketSendBufferSize;
+    }
+
+    /**
+     * @return the socket receive buffer size hint in bytes; 0 leaves it to the operating system
+     */
+    public int getSocketReceiveBufferSize() {
+        return socketReceiveBufferSize;
+    }
+
+    /**
+     * @return how many times a failed request is retried
+     */
+    public int getMaxErrorRetry() {
+        return maxErrorRetry;
+    }
+
+    /**
+     * @return the backoff before the first retry, in milliseconds; it doubles with each retry
+     */
+    public int getBaseRetryDelay() {
+        return baseRetryDelay;
+    }
+
+    /**
+     * @return the longest backoff between retries, in milliseconds
+     */
+    public int getMaxRetryDelay() {
+        return maxRetryDelay;
+    }
+
+    /**
+     * @return true to ask for gzip-compressed responses. This applies to every request, ranged
+     *         downloads included, whose offsets and length checks assume unencoded bodies, so the
+     *         presets leave it off
+     */
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    public int getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    /**
+     * @return the longest wait for data on an open connection, in milliseconds
+     */
+    public int getSocketTimeout() {
+        return socketTimeout;
+    }
+
+    /**
+     * @return the longest a whole request may take, in milliseconds; 0 for no limit,
+     *         which large part uploads and downloads need on slow links
+     */
+    public int getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
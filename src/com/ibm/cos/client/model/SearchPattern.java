@@ -0,0 +1,187 @@
+package com.ibm.cos.client.model;
+
+import com.ibm.cos.client.util.KeyMatcher;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * A compiled search term. Three forms are accepted:
+ * <ul>
+ *   <li>plain text, matched anywhere in the key ignoring case, even if it contains glob characters</li>
+ *   <li>{@code glob:} followed by a glob such as {@code logs/2026-*}{@code /app-*.gz}, matched against
+ *       the whole key: {@code *} and {@code ?} stay within one folder, {@code **} crosses folders,
+ *       {@code [abc]} matches one listed character. A glob without {@code /}, such as {@code *.gz},
+ *       is matched against the last part of the key, in any folder</li>
+ *   <li>{@code re:} followed by a regular expression, matched against the whole key</li>
+ * </ul>
+ * Globs and regular expressions are case-sensitive, like keys. Their literal leading
+ * part is exposed as a listing prefix so only the subtree they can match is listed.
+ */
+public class SearchPattern {
+    public static final String REGEX_MARKER = "re:";
+    public static final String GLOB_MARKER = "glob:";
+    /** Characters escaped when a glob is translated to a regular expression */
+    private static final String GLOB_ESCAPED = "\\.[]{}()<>*+-=!?^$|";
+    /** Characters that end the literal leading part of a regular expression */
+    private static final String REGEX_SPECIAL = "\\.[]{}()*+?^$|";
+
+    public enum Mode {
+        SUBSTRING, GLOB, REGEX
+    }
+
+    private final String term;
+    private final Mode mode;
+    private final String listingPrefix;
+    private final KeyMatcher substringMatcher;
+    /** Matchers are reset for each key instead of being created per key */
+    private final ThreadLocal<Matcher> patternMatcher;
+
+    private SearchPattern(String term, Mode mode, String listingPrefix, Pattern pattern) {
+        this.term = term;
+        this.mode = mode;
+        this.listingPrefix = listingPrefix;
+        this.substringMatcher = pattern == null ? new KeyMatcher(term) : null;
+        this.patternMatcher = pattern == null ? null : ThreadLocal.withInitial(() -> pattern.matcher(""));
+    }
+
+    /**
+     * Parses and compiles a search term
+     * @param searchTerm the term as typed by the user
+     * @return the compiled pattern
+     * @throws IllegalArgumentException if the term is empty or not a valid pattern
+     */
+    public static SearchPattern compile(String searchTerm) {
+        if (searchTerm == null || searchTerm.trim().isEmpty()) {
+            throw new IllegalArgumentException("Search term cannot be null or empty");
+        }
+        String term = searchTerm.trim();
+
+        try {
+            if (term.startsWith(REGEX_MARKER)) {
+                String regex = term.substring(REGEX_MARKER.length());
+                if (regex.isEmpty()) {
+                    throw new IllegalArgumentException("Regular expression cannot be empty");
+                }
+                return new SearchPattern(regex, Mode.REGEX, regexPrefix(regex), Pattern.compile(regex));
+            }
+            if (term.startsWith(GLOB_MARKER)) {
+                String glob = term.substring(GLOB_MARKER.length());
+                if (glob.isEmpty()) {
+                    throw new IllegalArgumentException("Glob cannot be empty");
+                }
+                if (glob.indexOf('/') < 0) {
+                    // A bare name pattern matches files in any folder
+                    return new SearchPattern(glob, Mode.GLOB, "", Pattern.compile("(?:.*/)?" + globToRegex(glob)));
+                }
+                return new SearchPattern(glob, Mode.GLOB, globPrefix(glob), Pattern.compile(globToRegex(glob)));
+            }
+        } catch (PatternSyntaxException e) {
+            throw new IllegalArgumentException("Invalid search pattern: " + e.getDescription(), e);
+        }
+        return new SearchPattern(term, Mode.SUBSTRING, "", null);
+    }
+
+    /**
+     * @param key the full object key
+     * @return true if the key matches this pattern
+     */
+    public boolean matches(String key) {
+        if (mode == Mode.SUBSTRING) {
+            return substringMatcher.matches(key);
+        }
+        return patternMatcher.get().reset(key).matches();
+    }
+
+    /**
+     * @return the prefix every matching key starts with, empty if any key can match
+     */
+    public String getListingPrefix() {
+        return listingPrefix;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return the text of the pattern, without the glob or regex marker
+     */
+    public String getTerm() {
+        return term;
+    }
+
+    private static String globPrefix(String glob) {
+        int end = 0;
+        while (end < glob.length() && "*?[".indexOf(glob.charAt(end)) < 0) {
+            end++;
+        }
+        return glob.substring(0, end);
+    }
+
+    private static String globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '*') {
+                if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                    regex.append(".*");
+                    i++;
+                } else {
+                    regex.append("[^/]*");
+                }
+            } else if (c == '?') {
+                regex.append("[^/]");
+            } else if (c == '[') {
+                int close = glob.indexOf(']', i + 1);
+                if (close < 0) {
+                    regex.append("\\[");
+                } else {
+                    String set = glob.substring(i + 1, close);
+                    regex.append('[').append(set.startsWith("!") ? "^" + set.substring(1) : set).append(']');
+                    i = close;
+                }
+            } else {
+                if (GLOB_ESCAPED.indexOf(c) >= 0) {
+                    regex.append('\\');
+                }
+                regex.append(c);
+            }
+        }
+        return regex.toString();
+    }
+
+    /**
+     * Collects the literal characters a regular expression must start with.
+     * Any alternation makes the expression unanchored, so no prefix is used then.
+     */
+    private static String regexPrefix(String regex) {
+        if (regex.indexOf('|') >= 0) {
+            return "";
+        }
+        StringBuilder prefix = new StringBuilder();
+        int i = regex.startsWith("^") ? 1 : 0;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            char literal;
+            int next;
+            if (c == '\\' && i + 1 < regex.length() && !Character.isLetterOrDigit(regex.charAt(i + 1))) {
+                literal = regex.charAt(i + 1);
+                next = i + 2;
+            } else if (REGEX_SPECIAL.indexOf(c) < 0) {
+                literal = c;
+                next = i + 1;
+            } else {
+                break;
+            }
+            // A quantified character may be absent or repeated, so it cannot be part of the prefix
+            if (next < regex.length() && "?*{".indexOf(regex.charAt(next)) >= 0) {
+                break;
+            }
+            prefix.append(literal);
+            i = next;
+        }
+        return prefix.toString();
+    }
+}
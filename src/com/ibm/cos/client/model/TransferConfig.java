@@ -0,0 +1,138 @@
+package com.ibm.cos.client.model;
+
+/**
+ * Tuning parameters for file transfers
+ */
+public class TransferConfig {
+    public static final int DEFAULT_CONCURRENCY = 8;
+    public static final long DEFAULT_PART_SIZE = 16L * 1024 * 1024;
+    public static final long DEFAULT_MULTIPART_THRESHOLD = 64L * 1024 * 1024;
+    public static final int DEFAULT_PART_CONCURRENCY = 8;
+    public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+    public static final int DEFAULT_LISTING_CONCURRENCY = 16;
+    public static final int MIN_BUFFER_SIZE = 8 * 1024;
+
+    /** Smallest part the service accepts, except for the last one */
+    public static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+    /** Parts are buffered in memory, so keep them well below the 5 GB service limit */
+    public static final long MAX_PART_SIZE = 1024L * 1024 * 1024;
+
+    private final int concurrency;
+    private final long partSize;
+    private final long multipartThreshold;
+    private final int partConcurrency;
+    private final int bufferSize;
+    private final int listingConcurrency;
+
+    public TransferConfig() {
+        this(DEFAULT_CONCURRENCY);
+    }
+
+    public TransferConfig(int concurrency) {
+        this(concurrency, DEFAULT_PART_SIZE, DEFAULT_MULTIPART_THRESHOLD, DEFAULT_PART_CONCURRENCY, DEFAULT_BUFFER_SIZE,
+                DEFAULT_LISTING_CONCURRENCY);
+    }
+
+    private TransferConfig(int concurrency, long partSize, long multipartThreshold, int partConcurrency,
+                           int bufferSize, int listingConcurrency) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("Concurrency must be positive");
+        }
+        if (partSize < MIN_PART_SIZE || partSize > MAX_PART_SIZE) {
+            throw new IllegalArgumentException("Part size must be between " + MIN_PART_SIZE + " and " + MAX_PART_SIZE + " bytes");
+        }
+        if (multipartThreshold < partSize) {
+            throw new IllegalArgumentException("Multipart threshold cannot be smaller than the part size");
+        }
+        if (partConcurrency <= 0) {
+            throw new IllegalArgumentException("Part concurrency must be positive");
+        }
+        if (bufferSize < MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("Buffer size must be at least " + MIN_BUFFER_SIZE + " bytes");
+        }
+        if (listingConcurrency <= 0) {
+            throw new IllegalArgumentException("Listing concurrency must be positive");
+        }
+
+        this.concurrency = concurrency;
+        this.partSize = partSize;
+        this.multipartThreshold = multipartThreshold;
+        this.partConcurrency = partConcurrency;
+        this.bufferSize = bufferSize;
+        this.listingConcurrency = listingConcurrency;
+    }
+
+    public TransferConfig withPartSize(long partSize) {
+        return new TransferConfig(concurrency, partSize, Math.max(multipartThreshold, partSize), partConcurrency, bufferSize,
+                listingConcurrency);
+    }
+
+    public TransferConfig withMultipartThreshold(long multipartThreshold) {
+        return new TransferConfig(concurrency, partSize, multipartThreshold, partConcurrency, bufferSize,
+                listingConcurrency);
+    }
+
+    public TransferConfig withPartConcurrency(int partConcurrency) {
+        return new TransferConfig(concurrency, partSize, multipartThreshold, partConcurrency, bufferSize,
+                listingConcurrency);
+    }
+
+    public TransferConfig withBufferSize(int bufferSize) {
+        return new TransferConfig(concurrency, partSize, multipartThreshold, partConcurrency, bufferSize,
+                listingConcurrency);
+    }
+
+    public TransferConfig withListingConcurrency(int listingConcurrency) {
+        return new TransferConfig(concurrency, partSize, multipartThreshold, partConcurrency, bufferSize,
+                listingConcurrency);
+    }
+
+    /**
+     * @return the number of files transferred at the same time
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * @return the size of each part of a multipart upload or ranged download
+     */
+    public long getPartSize() {
+        return partSize;
+    }
+
+    /**
+     * @return files at least this large are uploaded in parts
+     */
+    public long getMultipartThreshold() {
+        return multipartThreshold;
+    }
+
+    /**
+     * @return the number of part requests in flight: upload parts, download ranges and delete batches
+     */
+    public int getPartConcurrency() {
+        return partConcurrency;
+    }
+
+    /**
+     * @return the size of the buffers used to stream downloads to disk
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * @return the number of listing requests in flight when a whole prefix is listed in shards
+     */
+    public int getListingConcurrency() {
+        return listingConcurrency;
+    }
+
+    /**
+     * @return the most requests file transfers, their parts and sharded listings can have in flight together
+     */
+    public int getMaxConcurrentRequests() {
+        return concurrency + partConcurrency + listingConcurrency;
+    }
+}
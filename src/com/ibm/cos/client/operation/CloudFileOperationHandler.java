@@ -1,12 +1,31 @@
 package com.ibm.cos.client.operation;
 
+import com.ibm.cos.client.model.FileItem;
+import com.ibm.cos.client.model.TransferConfig;
 import com.ibm.cos.client.service.CloudStorageService;
+import com.ibm.cos.client.service.DeleteResult;
 import com.ibm.cos.client.service.StorageException;
+import com.ibm.cos.client.sync.SyncDirection;
+import com.ibm.cos.client.sync.SyncPlanner;
+import com.ibm.cos.client.sync.SyncState;
+import com.ibm.cos.client.util.FileUtils;
 
 import javax.swing.*;
 import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 
 /**
  * Implementation of FileOperationHandler for cloud storage operations.
@@ -14,180 +33,462 @@ import java.util.concurrent.atomic.AtomicInteger;
  * Follows Dependency Inversion Principle - depends on abstractions (CloudStorageService).
  */
 public class CloudFileOperationHandler implements FileOperationHandler {
+    private static final int COPY_PROGRESS_INTERVAL = 1000;
+    private static final int DELETE_BATCH_SIZE = 1000;
+
     private final CloudStorageService storageService;
+    private final TransferScheduler scheduler;
+    private final File journalDirectory;
 
     public CloudFileOperationHandler(CloudStorageService storageService) {
+        this(storageService, new TransferConfig());
+    }
+
+    public CloudFileOperationHandler(CloudStorageService storageService, TransferConfig transferConfig) {
+        this(storageService, transferConfig, FileUtils.getApplicationDirectory("uploads"));
+    }
+
+    public CloudFileOperationHandler(CloudStorageService storageService, TransferConfig transferConfig,
+                                     File journalDirectory) {
         this.storageService = storageService;
+        this.scheduler = new TransferScheduler(transferConfig.getConcurrency());
+        this.journalDirectory = journalDirectory;
     }
 
     @Override
     public void uploadFiles(List<File> files, String bucket, String prefix, FileOperationListener listener) {
-        SwingWorker<Integer, String> worker = new SwingWorker<Integer, String>() {
+        TransferJob job = scheduler.createJob("Upload " + (files.size() == 1 ? files.get(0).getName() : files.size() + " items")
+            + " to " + bucket + "/" + prefix, TransferJob.Priority.NORMAL);
+        JobWorker<Integer> worker = new JobWorker<Integer>(job, listener) {
+            private TransferProgress progress;
+
             @Override
-            protected Integer doInBackground() {
+            protected Integer doInBackground() throws Exception {
                 AtomicInteger successCount = new AtomicInteger(0);
+                // Folders are counted as they are walked, so totals start with the plain files only
+                progress = new TransferProgress(listener, job, 0, 0);
                 
-                for (int i = 0; i < files.size(); i++) {
-                    File file = files.get(i);
-                    try {
-                        publish("Uploading " + file.getName() + "... (" + (i + 1) + "/" + files.size() + ")");
-                        String key = prefix + file.getName();
-                        storageService.uploadFile(bucket, key, file);
-                        successCount.incrementAndGet();
-                    } catch (StorageException ex) {
-                        publish("Failed to upload " + file.getName() + ": " + ex.getMessage());
+                for (File file : files) {
+                    if (file.isDirectory()) {
+                        uploadDirectory(file, prefix + file.getName() + "/", successCount);
+                    } else {
+                        upload(file, prefix + file.getName(), file.length(), successCount);
                     }
                 }
+                job.awaitTasks();
                 return successCount.get();
             }
 
-            @Override
-            protected void process(List<String> chunks) {
-                if (!chunks.isEmpty()) {
-                    listener.onOperationProgress(chunks.get(chunks.size() - 1));
-                }
+            /**
+             * Walks the tree and submits each file as soon as it is found, so uploads run while
+             * the walk continues and only the bounded engine queue is held in memory
+             */
+            private void uploadDirectory(File directory, String keyPrefix,
+                                         AtomicInteger successCount) throws IOException {
+                Path root = directory.toPath();
+                Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult visitFile(Path path, BasicFileAttributes attributes) throws IOException {
+                        if (attributes.isRegularFile()) {
+                            try {
+                                upload(path.toFile(), keyPrefix + relativeKey(root, path), attributes.size(),
+                                        successCount);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                throw new InterruptedIOException("Interrupted while queueing " + path);
+                            }
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(Path path, IOException e) {
+                        progress.fileAdded(0);
+                        progress.fileCompleted();
+                        publish("Skipped " + path + ": " + e.getMessage());
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            }
+
+            private void upload(File file, String key, long size,
+                                AtomicInteger successCount) throws InterruptedException {
+                progress.fileAdded(size);
+                scheduler.submit(job, () -> {
+                    try {
+                        UploadJournal journal = new UploadJournal(journalDirectory, bucket, key, file);
+                        storageService.uploadFile(bucket, key, file, journal.track(progress));
+                        journal.delete();
+                        successCount.incrementAndGet();
+                        int completed = progress.fileCompleted();
+                        publish("Uploaded " + key + " (" + completed + "/" + progress.getTotalFiles() + ")");
+                    } catch (StorageException | RuntimeException ex) {
+                        progress.fileCompleted();
+                        publish("Failed to upload " + key + ": " + ex.getMessage());
+                    }
+                    return null;
+                });
             }
 
             @Override
-            protected void done() {
+            protected void finished() {
                 try {
                     int successCount = get();
-                    if (successCount == files.size()) {
-                        String message = successCount == 1 ? 
+                    int totalFiles = progress.getTotalFiles();
+                    if (successCount == totalFiles) {
+                        String message = successCount == 1 && files.get(0).isFile() ? 
                             "Upload completed: " + files.get(0).getName() :
                             "Uploaded " + successCount + " files successfully";
-                        listener.onOperationCompleted(message);
+                        completed(message);
                     } else {
-                        String message = "Uploaded " + successCount + " of " + files.size() + " files";
+                        String message = "Uploaded " + successCount + " of " + totalFiles + " files";
                         if (successCount == 0) {
-                            listener.onOperationFailed("Upload failed for all files");
+                            failed("Upload failed for all files");
                         } else {
-                            listener.onOperationCompleted(message);
+                            completed(message);
                         }
                     }
                 } catch (Exception ex) {
-                    listener.onOperationFailed("Upload error: " + ex.getMessage());
+                    failed("Upload error: " + ex.getMessage());
                 }
             }
         };
         
         String message = files.size() == 1 ? 
             "Uploading " + files.get(0).getName() + "..." :
-            "Uploading " + files.size() + " files...";
+            "Uploading " + files.size() + " items...";
         listener.onOperationStarted(message);
         worker.execute();
     }
 
+    /**
+     * Receives the objects of a folder listing on the listing threads
+     */
+    private interface FolderItemHandler {
+        void accept(FileItem item) throws InterruptedException;
+    }
+
+    /**
+     * Streams the objects under a prefix to a job's producer. The listing stops as soon as the
+     * job is cancelled, and holds back while the job is paused or has enough tasks queued,
+     * because submitting its tasks blocks.
+     * @throws InterruptedException if the job was cancelled while listing
+     * @throws StorageException if the listing fails
+     */
+    private void listFolder(TransferJob job, String bucket, String prefix, FolderItemHandler handler)
+            throws InterruptedException, StorageException {
+        AtomicBoolean interrupted = new AtomicBoolean(false);
+        storageService.listObjectsRecursively(bucket, prefix, page -> {
+            for (FileItem item : page) {
+                if (job.isCancelled()) {
+                    interrupted.set(true);
+                    return false;
+                }
+                try {
+                    handler.accept(item);
+                } catch (InterruptedException e) {
+                    interrupted.set(true);
+                    return false;
+                }
+            }
+            return true;
+        });
+        if (interrupted.get()) {
+            throw new InterruptedException("Interrupted while listing " + prefix);
+        }
+    }
+
+    /**
+     * Builds the key suffix for a file below a local folder, always with "/" separators
+     */
+    private static String relativeKey(Path root, Path file) {
+        StringBuilder key = new StringBuilder();
+        for (Path part : root.relativize(file)) {
+            if (key.length() > 0) {
+                key.append('/');
+            }
+            key.append(part.toString());
+        }
+        return key.toString();
+    }
+
     @Override
     public void downloadFiles(List<String> keys, String bucket, File targetDirectory, FileOperationListener listener) {
-        SwingWorker<Integer, String> worker = new SwingWorker<Integer, String>() {
+        // Downloads are usually wanted now, so they go ahead of bulk work
+        TransferJob job = scheduler.createJob("Download " + (keys.size() == 1 ? keys.get(0) : keys.size() + " items")
+            + " to " + targetDirectory.getName(), TransferJob.Priority.HIGH);
+        JobWorker<Integer> worker = new JobWorker<Integer>(job, listener) {
+            private TransferProgress progress;
+
             @Override
-            protected Integer doInBackground() {
+            protected Integer doInBackground() throws Exception {
                 AtomicInteger successCount = new AtomicInteger(0);
-                
-                for (int i = 0; i < keys.size(); i++) {
-                    String key = keys.get(i);
-                    try {
-                        String fileName = key.substring(key.lastIndexOf("/") + 1);
-                        publish("Downloading " + fileName + "... (" + (i + 1) + "/" + keys.size() + ")");
-                        File targetFile = new File(targetDirectory, fileName);
-                        storageService.downloadFile(bucket, key, targetFile);
-                        successCount.incrementAndGet();
-                    } catch (StorageException ex) {
-                        String fileName = key.substring(key.lastIndexOf("/") + 1);
-                        publish("Failed to download " + fileName + ": " + ex.getMessage());
+                // Sizes of selected files are not known up front, so progress starts from the file count
+                progress = new TransferProgress(listener, job, 0, 0);
+                // Paths are kept relative to the folder shared by the selection, so equal names never collide
+                String basePrefix = commonFolder(keys);
+
+                for (String key : keys) {
+                    if (key.endsWith("/")) {
+                        downloadFolder(key, basePrefix, successCount);
+                    } else {
+                        download(key, key.substring(basePrefix.length()), 0, successCount);
                     }
                 }
+                job.awaitTasks();
                 return successCount.get();
             }
 
-            @Override
-            protected void process(List<String> chunks) {
-                if (!chunks.isEmpty()) {
-                    listener.onOperationProgress(chunks.get(chunks.size() - 1));
+            /**
+             * Streams the listing of a folder into the transfer scheduler, so downloads start with the
+             * first page and the engine's bounded queue holds back the listing instead of memory
+             */
+            private void downloadFolder(String folderKey, String basePrefix,
+                                        AtomicInteger successCount) throws InterruptedException {
+                AtomicBoolean interrupted = new AtomicBoolean(false);
+                try {
+                    storageService.listObjectsRecursively(bucket, folderKey, page -> {
+                        for (FileItem item : page) {
+                            String relativePath = item.getName().substring(basePrefix.length());
+                            if (item.getName().endsWith("/")) {
+                                // Folder marker objects only need their directory
+                                createFolder(relativePath);
+                                continue;
+                            }
+                            try {
+                                download(item.getName(), relativePath, item.getSize(), successCount);
+                            } catch (InterruptedException e) {
+                                interrupted.set(true);
+                                return false;
+                            }
+                        }
+                        return true;
+                    });
+                } catch (StorageException ex) {
+                    progress.fileAdded(0);
+                    progress.fileCompleted();
+                    publish("Failed to list " + folderKey + ": " + ex.getMessage());
+                }
+                if (interrupted.get()) {
+                    throw new InterruptedException("Interrupted while queueing " + folderKey);
                 }
             }
 
+            private void createFolder(String relativePath) {
+                File folder = targetFile(relativePath);
+                try {
+                    if (!isWithin(targetDirectory, folder)) {
+                        publish("Skipped " + relativePath + ": key resolves outside the download folder");
+                    } else if (!folder.isDirectory() && !folder.mkdirs()) {
+                        publish("Cannot create folder " + folder);
+                    }
+                } catch (IOException ex) {
+                    publish("Skipped " + relativePath + ": " + ex.getMessage());
+                }
+            }
+
+            private void download(String key, String relativePath, long size,
+                                  AtomicInteger successCount) throws InterruptedException {
+                progress.fileAdded(size);
+                scheduler.submit(job, () -> {
+                    try {
+                        File targetFile = targetFile(relativePath);
+                        if (!isWithin(targetDirectory, targetFile)) {
+                            throw new StorageException("Key resolves outside the download folder");
+                        }
+                        File parent = targetFile.getParentFile();
+                        if (!parent.isDirectory() && !parent.mkdirs()) {
+                            throw new StorageException("Cannot create folder " + parent);
+                        }
+                        storageService.downloadFile(bucket, key, targetFile, progress);
+                        successCount.incrementAndGet();
+                        int completed = progress.fileCompleted();
+                        publish("Downloaded " + relativePath + " (" + completed + "/" + progress.getTotalFiles() + ")");
+                    } catch (StorageException | IOException | RuntimeException ex) {
+                        progress.fileCompleted();
+                        publish("Failed to download " + relativePath + ": " + ex.getMessage());
+                    }
+                    return null;
+                });
+            }
+
+            private File targetFile(String relativePath) {
+                return new File(targetDirectory, relativePath.replace('/', File.separatorChar));
+            }
+
             @Override
-            protected void done() {
+            protected void finished() {
                 try {
                     int successCount = get();
-                    if (successCount == keys.size()) {
+                    int totalFiles = progress.getTotalFiles();
+                    if (successCount == totalFiles) {
                         String message = successCount == 1 ? 
                             "Download completed" :
                             "Downloaded " + successCount + " files successfully";
-                        listener.onOperationCompleted(message);
+                        completed(message);
                     } else {
-                        String message = "Downloaded " + successCount + " of " + keys.size() + " files";
+                        String message = "Downloaded " + successCount + " of " + totalFiles + " files";
                         if (successCount == 0) {
-                            listener.onOperationFailed("Download failed for all files");
+                            failed("Download failed for all files");
                         } else {
-                            listener.onOperationCompleted(message);
+                            completed(message);
                         }
                     }
                 } catch (Exception ex) {
-                    listener.onOperationFailed("Download error: " + ex.getMessage());
+                    failed("Download error: " + ex.getMessage());
                 }
             }
         };
         
         String message = keys.size() == 1 ? 
-            "Downloading file..." :
-            "Downloading " + keys.size() + " files...";
+            "Downloading " + keys.get(0) + "..." :
+            "Downloading " + keys.size() + " items...";
         listener.onOperationStarted(message);
         worker.execute();
     }
 
+    /**
+     * Finds the deepest folder containing every key; a folder key counts as its own parent's child
+     */
+    private static String commonFolder(List<String> keys) {
+        String common = null;
+        for (String key : keys) {
+            String trimmed = key.endsWith("/") ? key.substring(0, key.length() - 1) : key;
+            String parent = trimmed.substring(0, trimmed.lastIndexOf('/') + 1);
+            if (common == null) {
+                common = parent;
+            } else {
+                int length = 0;
+                int max = Math.min(common.length(), parent.length());
+                while (length < max && common.charAt(length) == parent.charAt(length)) {
+                    length++;
+                }
+                common = common.substring(0, common.lastIndexOf('/', length - 1) + 1);
+            }
+        }
+        return common != null ? common : "";
+    }
+
+    /**
+     * Guards against keys such as "../x" writing outside the chosen folder
+     */
+    private static boolean isWithin(File directory, File file) throws IOException {
+        Path root = directory.getCanonicalFile().toPath();
+        Path path = file.getCanonicalFile().toPath();
+        // Compares whole path elements, so a filesystem root works as the directory too
+        return path.startsWith(root) && !path.equals(root);
+    }
+
     @Override
     public void deleteFiles(List<String> keys, String bucket, FileOperationListener listener) {
-        SwingWorker<Integer, String> worker = new SwingWorker<Integer, String>() {
+        TransferJob job = scheduler.createJob("Delete " + (keys.size() == 1 ? keys.get(0) : keys.size() + " items"),
+            TransferJob.Priority.NORMAL);
+        JobWorker<Integer> worker = new JobWorker<Integer>(job, listener) {
             @Override
-            protected Integer doInBackground() {
+            protected Integer doInBackground() throws InterruptedException {
                 AtomicInteger successCount = new AtomicInteger(0);
                 
-                for (int i = 0; i < keys.size(); i++) {
-                    String key = keys.get(i);
-                    try {
-                        String fileName = key.substring(key.lastIndexOf("/") + 1);
-                        if (fileName.isEmpty()) fileName = key;
-                        publish("Deleting " + fileName + "... (" + (i + 1) + "/" + keys.size() + ")");
-                        storageService.deleteObject(bucket, key);
+                // Keys ending with "/" are folders and are deleted with everything under them
+                List<String> objectKeys = new ArrayList<>();
+                List<AtomicBoolean> folderFailures = new ArrayList<>();
+                for (String key : keys) {
+                    if (key.endsWith("/")) {
+                        folderFailures.add(deleteFolder(key));
+                    } else {
+                        objectKeys.add(key);
+                    }
+                }
+                
+                AtomicInteger processed = new AtomicInteger(0);
+                for (int start = 0; start < objectKeys.size(); start += DELETE_BATCH_SIZE) {
+                    List<String> batch = objectKeys.subList(start, Math.min(start + DELETE_BATCH_SIZE, objectKeys.size()));
+                    scheduler.submit(job, () -> {
+                        try {
+                            DeleteResult result = storageService.deleteObjects(bucket, batch);
+                            successCount.addAndGet(result.getDeletedCount());
+                            for (Map.Entry<String, String> failure : result.getFailures().entrySet()) {
+                                publish("Failed to delete " + failure.getKey() + ": " + failure.getValue());
+                            }
+                        } catch (StorageException ex) {
+                            publish("Failed to delete " + batch.size() + " items: " + ex.getMessage());
+                        }
+                        publish("Deleting... (" + processed.addAndGet(batch.size()) + "/" + objectKeys.size() + ")");
+                        return null;
+                    });
+                }
+                // Every folder and batch is queued by now, so they all run side by side
+                job.awaitTasks();
+                for (AtomicBoolean failed : folderFailures) {
+                    if (!failed.get()) {
                         successCount.incrementAndGet();
-                    } catch (StorageException ex) {
-                        String fileName = key.substring(key.lastIndexOf("/") + 1);
-                        if (fileName.isEmpty()) fileName = key;
-                        publish("Failed to delete " + fileName + ": " + ex.getMessage());
                     }
                 }
                 return successCount.get();
             }
 
-            @Override
-            protected void process(List<String> chunks) {
-                if (!chunks.isEmpty()) {
-                    listener.onOperationProgress(chunks.get(chunks.size() - 1));
+            /**
+             * Queues the deletion of a folder in batches of up to 1,000 keys, each a task of the job,
+             * while the folder is still being listed
+             * @return set once any object of the folder fails to delete; final when the job's tasks are done
+             */
+            private AtomicBoolean deleteFolder(String prefix) throws InterruptedException {
+                AtomicInteger deleted = new AtomicInteger(0);
+                AtomicBoolean anyFailed = new AtomicBoolean(false);
+                List<List<String>> pending = new ArrayList<>();
+                pending.add(new ArrayList<>(DELETE_BATCH_SIZE));
+                try {
+                    listFolder(job, bucket, prefix, item -> {
+                        List<String> batch = pending.get(0);
+                        batch.add(item.getName());
+                        if (batch.size() == DELETE_BATCH_SIZE) {
+                            pending.set(0, new ArrayList<>(DELETE_BATCH_SIZE));
+                            scheduler.submit(job, () -> deleteBatch(prefix, batch, deleted, anyFailed));
+                        }
+                    });
+                    if (!pending.get(0).isEmpty()) {
+                        scheduler.submit(job, () -> deleteBatch(prefix, pending.get(0), deleted, anyFailed));
+                    }
+                } catch (StorageException ex) {
+                    anyFailed.set(true);
+                    publish("Failed to delete " + prefix + ": " + ex.getMessage());
                 }
+                return anyFailed;
+            }
+
+            private Void deleteBatch(String prefix, List<String> batch, AtomicInteger deleted, AtomicBoolean anyFailed) {
+                try {
+                    DeleteResult result = storageService.deleteObjects(bucket, batch);
+                    for (Map.Entry<String, String> failure : result.getFailures().entrySet()) {
+                        anyFailed.set(true);
+                        publish("Failed to delete " + failure.getKey() + ": " + failure.getValue());
+                    }
+                    publish("Deleting " + prefix + "... (" + deleted.addAndGet(result.getDeletedCount()) + " objects)");
+                } catch (StorageException ex) {
+                    anyFailed.set(true);
+                    publish("Failed to delete " + batch.size() + " objects under " + prefix + ": " + ex.getMessage());
+                }
+                return null;
             }
 
             @Override
-            protected void done() {
+            protected void finished() {
                 try {
                     int successCount = get();
                     if (successCount == keys.size()) {
                         String message = successCount == 1 ? 
                             "Delete completed" :
                             "Deleted " + successCount + " items successfully";
-                        listener.onOperationCompleted(message);
+                        completed(message);
                     } else {
                         String message = "Deleted " + successCount + " of " + keys.size() + " items";
                         if (successCount == 0) {
-                            listener.onOperationFailed("Delete failed for all items");
+                            failed("Delete failed for all items");
                         } else {
-                            listener.onOperationCompleted(message);
+                            completed(message);
                         }
                     }
                 } catch (Exception ex) {
-                    listener.onOperationFailed("Delete error: " + ex.getMessage());
+                    failed("Delete error: " + ex.getMessage());
                 }
             }
         };
@@ -198,4 +499,402 @@ public class CloudFileOperationHandler implements FileOperationHandler {
         listener.onOperationStarted(message);
         worker.execute();
     }
-}
\ No newline at end of file
+
+    @Override
+    public void copyFiles(Map<String, String> destinations, String bucket, FileOperationListener listener) {
+        copyWithinBucket(destinations, bucket, false, listener);
+    }
+
+    @Override
+    public void moveFiles(Map<String, String> destinations, String bucket, FileOperationListener listener) {
+        copyWithinBucket(destinations, bucket, true, listener);
+    }
+
+    /**
+     * Copies or moves keys and folders on the server. Every object is copied as a task of the
+     * job, folders included, so pausing, priorities and cancelling apply to folder copies too.
+     * When moving a folder, copied sources are deleted in batches of up to 1,000 keys.
+     */
+    private void copyWithinBucket(Map<String, String> destinations, String bucket, boolean move,
+                                  FileOperationListener listener) {
+        String verb = move ? "Moved" : "Copied";
+        String action = move ? "move" : "copy";
+        TransferJob job = scheduler.createJob((move ? "Move " : "Copy ") + (destinations.size() == 1
+            ? destinations.keySet().iterator().next() : destinations.size() + " items"), TransferJob.Priority.NORMAL);
+        JobWorker<Integer> worker = new JobWorker<Integer>(job, listener) {
+            @Override
+            protected Integer doInBackground() throws Exception {
+                AtomicInteger successCount = new AtomicInteger(0);
+                AtomicInteger copiedObjects = new AtomicInteger(0);
+                List<BooleanSupplier> folders = new ArrayList<>();
+
+                for (Map.Entry<String, String> entry : destinations.entrySet()) {
+                    String source = entry.getKey();
+                    String destination = entry.getValue();
+                    if (source.endsWith("/")) {
+                        folders.add(copyFolder(source, destination, copiedObjects));
+                        continue;
+                    }
+                    scheduler.submit(job, () -> {
+                        try {
+                            if (move) {
+                                storageService.moveObject(bucket, source, destination);
+                            } else {
+                                storageService.copyObject(bucket, source, destination);
+                            }
+                            successCount.incrementAndGet();
+                            publish(verb + " " + source + " to " + destination);
+                        } catch (StorageException | RuntimeException ex) {
+                            publish("Failed to " + action + " " + source + ": " + ex.getMessage());
+                        }
+                        return null;
+                    });
+                }
+                // Every folder and object is queued by now, so they all run side by side
+                job.awaitTasks();
+                for (BooleanSupplier folder : folders) {
+                    if (folder.getAsBoolean()) {
+                        successCount.incrementAndGet();
+                    }
+                }
+                return successCount.get();
+            }
+
+            /**
+             * Queues a task per object of a folder while the folder is still being listed
+             * @return finishes the folder once the job's tasks are done, deleting the last
+             *         copied sources of a move; true if every object was copied or moved
+             */
+            private BooleanSupplier copyFolder(String source, String destination, AtomicInteger copiedObjects)
+                    throws InterruptedException {
+                if (destination.startsWith(source)) {
+                    // The listing would pick up the copies and copy them again
+                    publish("Failed to " + action + " " + source + ": destination is inside the folder");
+                    return () -> false;
+                }
+                AtomicBoolean anyFailed = new AtomicBoolean(false);
+                List<String> copiedSources = new ArrayList<>(DELETE_BATCH_SIZE);
+                try {
+                    listFolder(job, bucket, source, item -> scheduler.submit(job, () -> {
+                        String sourceKey = item.getName();
+                        try {
+                            storageService.copyObject(bucket, sourceKey,
+                                destination + sourceKey.substring(source.length()), item.getSize());
+                        } catch (StorageException | RuntimeException ex) {
+                            anyFailed.set(true);
+                            publish("Failed to " + action + " " + sourceKey + ": " + ex.getMessage());
+                            return null;
+                        }
+                        int copied = copiedObjects.incrementAndGet();
+                        if (copied % COPY_PROGRESS_INTERVAL == 0) {
+                            publish((move ? "Moving " : "Copying ") + source + "... (" + copied + " objects)");
+                        }
+                        if (move) {
+                            List<String> batch = null;
+                            synchronized (copiedSources) {
+                                copiedSources.add(sourceKey);
+                                if (copiedSources.size() == DELETE_BATCH_SIZE) {
+                                    batch = new ArrayList<>(copiedSources);
+                                    copiedSources.clear();
+                                }
+                            }
+                            if (batch != null) {
+                                deleteSources(batch, anyFailed);
+                            }
+                        }
+                        return null;
+                    }));
+                } catch (StorageException ex) {
+                    anyFailed.set(true);
+                    publish("Failed to " + action + " " + source + ": " + ex.getMessage());
+                }
+                return () -> {
+                    if (move && !copiedSources.isEmpty()) {
+                        deleteSources(copiedSources, anyFailed);
+                    }
+                    return !anyFailed.get();
+                };
+            }
+
+            private void deleteSources(List<String> sources, AtomicBoolean anyFailed) {
+                try {
+                    DeleteResult result = storageService.deleteObjects(bucket, sources);
+                    for (Map.Entry<String, String> failure : result.getFailures().entrySet()) {
+                        anyFailed.set(true);
+                        publish("Copied " + failure.getKey() + " but failed to delete it: " + failure.getValue());
+                    }
+                } catch (StorageException ex) {
+                    anyFailed.set(true);
+                    publish("Copied " + sources.size() + " objects but failed to delete them: " + ex.getMessage());
+                }
+            }
+
+            @Override
+            protected void finished() {
+                try {
+                    int successCount = get();
+                    if (successCount == destinations.size()) {
+                        completed(verb + " " + successCount + (successCount == 1 ? " item" : " items"));
+                    } else if (successCount == 0) {
+                        failed((move ? "Move" : "Copy") + " failed for all items");
+                    } else {
+                        completed(verb + " " + successCount + " of " + destinations.size() + " items");
+                    }
+                } catch (Exception ex) {
+                    failed((move ? "Move" : "Copy") + " error: " + ex.getMessage());
+                }
+            }
+        };
+
+        listener.onOperationStarted((move ? "Moving " : "Copying ") + destinations.size()
+            + (destinations.size() == 1 ? " item..." : " items..."));
+        worker.execute();
+    }
+
+    @Override
+    public void syncFolder(File localDirectory, String bucket, String prefix, SyncDirection direction,
+                           FileOperationListener listener) {
+        // A sync is a bulk backfill, so interactive transfers go ahead of it
+        TransferJob job = scheduler.createJob("Sync " + localDirectory.getName() + " with " + bucket + "/" + prefix
+            + " (" + direction + ")", TransferJob.Priority.LOW);
+        JobWorker<String> worker = new JobWorker<String>(job, listener) {
+            private final AtomicInteger uploaded = new AtomicInteger(0);
+            private final AtomicInteger downloaded = new AtomicInteger(0);
+            private final AtomicInteger unchanged = new AtomicInteger(0);
+            private final AtomicInteger failed = new AtomicInteger(0);
+            private TransferProgress progress;
+            private SyncPlanner planner;
+
+            @Override
+            protected String doInBackground() throws Exception {
+                publish("Scanning " + localDirectory.getName() + "...");
+                Path root = localDirectory.toPath();
+                Map<String, SyncPlanner.LocalFile> localFiles = SyncPlanner.scan(root);
+                SyncState state = SyncState.load(FileUtils.getApplicationDirectory("sync"), localDirectory, bucket, prefix);
+                planner = new SyncPlanner(direction, state);
+                progress = new TransferProgress(listener, job, 0, 0);
+
+                try {
+                    // Decisions are made as listing pages arrive, so transfers start while the prefix is still listed
+                    AtomicBoolean interrupted = new AtomicBoolean(false);
+                    storageService.listObjectsRecursively(bucket, prefix, page -> {
+                        for (FileItem item : page) {
+                            if (item.getName().endsWith("/")) {
+                                continue;
+                            }
+                            String path = item.getName().substring(prefix.length());
+                            try {
+                                apply(path, localFiles.remove(path), item, root);
+                            } catch (InterruptedException e) {
+                                interrupted.set(true);
+                                return false;
+                            }
+                        }
+                        publish("Comparing... (" + unchanged.get() + " unchanged, "
+                            + progress.getTotalFiles() + " to transfer)");
+                        return true;
+                    });
+                    if (interrupted.get()) {
+                        throw new InterruptedException("Sync interrupted");
+                    }
+                    // Whatever the listing did not claim exists only locally
+                    for (Map.Entry<String, SyncPlanner.LocalFile> local : localFiles.entrySet()) {
+                        apply(local.getKey(), local.getValue(), null, root);
+                    }
+                    job.awaitTasks();
+                } finally {
+                    // A failed or cancelled sync still keeps what it compared and transferred
+                    try {
+                        state.save();
+                    } catch (IOException e) {
+                        // Without the state the next sync compares from scratch, but nothing is lost
+                        e.printStackTrace();
+                    }
+                }
+                return "Sync completed: " + uploaded.get() + " uploaded, " + downloaded.get() + " downloaded, "
+                    + unchanged.get() + " unchanged" + (failed.get() > 0 ? ", " + failed.get() + " failed" : "");
+            }
+
+            private void apply(String path, SyncPlanner.LocalFile local, FileItem remote, Path root)
+                    throws InterruptedException {
+                switch (planner.decide(path, local, remote)) {
+                    case SKIP:
+                        unchanged.incrementAndGet();
+                        break;
+                    case RECORD:
+                        planner.recordSynced(path, local, remote.getETag());
+                        unchanged.incrementAndGet();
+                        break;
+                    case UPLOAD:
+                        transfer(path, local.getSize(), () -> {
+                            String key = prefix + path;
+                            UploadJournal journal = new UploadJournal(journalDirectory, bucket, key, local.getPath().toFile());
+                            String eTag = storageService.uploadFile(bucket, key, local.getPath().toFile(),
+                                journal.track(progress));
+                            journal.delete();
+                            // With the ETag, the next sync never compares the server's clock with ours
+                            planner.recordSynced(path, local, eTag);
+                            uploaded.incrementAndGet();
+                            return "Uploaded ";
+                        });
+                        break;
+                    case DOWNLOAD:
+                        transfer(path, remote.getSize(), () -> {
+                            File targetFile = new File(localDirectory, path.replace('/', File.separatorChar));
+                            if (!isWithin(localDirectory, targetFile)) {
+                                throw new StorageException("Key resolves outside the sync folder");
+                            }
+                            File parent = targetFile.getParentFile();
+                            if (!parent.isDirectory() && !parent.mkdirs()) {
+                                throw new StorageException("Cannot create folder " + parent);
+                            }
+                            storageService.downloadFile(bucket, remote.getName(), targetFile, progress);
+                            if (remote.getLastModifiedTime() != FileItem.UNKNOWN_TIME) {
+                                // Matching the object's time keeps "newer wins" meaningful on the next sync
+                                targetFile.setLastModified(remote.getLastModifiedTime());
+                            }
+                            planner.recordSynced(path, SyncPlanner.stat(targetFile.toPath()), remote.getETag());
+                            downloaded.incrementAndGet();
+                            return "Downloaded ";
+                        });
+                        break;
+                }
+            }
+
+            private void transfer(String path, long size, Callable<String> task)
+                    throws InterruptedException {
+                progress.fileAdded(size);
+                scheduler.submit(job, () -> {
+                    try {
+                        String verb = task.call();
+                        int completed = progress.fileCompleted();
+                        publish(verb + path + " (" + completed + "/" + progress.getTotalFiles() + ")");
+                    } catch (Exception ex) {
+                        failed.incrementAndGet();
+                        progress.fileCompleted();
+                        publish("Failed to sync " + path + ": " + ex.getMessage());
+                    }
+                    return null;
+                });
+            }
+
+            @Override
+            protected void finished() {
+                try {
+                    String message = get();
+                    if (failed.get() > 0 && uploaded.get() + downloaded.get() == 0) {
+                        failed("Sync failed for all " + failed.get() + " changed files");
+                    } else {
+                        completed(message);
+                    }
+                } catch (Exception ex) {
+                    failed("Sync error: " + ex.getMessage());
+                }
+            }
+        };
+
+        listener.onOperationStarted("Syncing " + localDirectory.getName() + " (" + direction + ")...");
+        worker.execute();
+    }
+
+    @Override
+    public TransferScheduler getScheduler() {
+        return scheduler;
+    }
+
+    @Override
+    public List<UploadJournal> findInterruptedUploads() {
+        return UploadJournal.loadAll(journalDirectory);
+    }
+
+    @Override
+    public void resumeUploads(List<UploadJournal> uploads, FileOperationListener listener) {
+        TransferJob job = scheduler.createJob("Resume " + uploads.size() + " interrupted uploads", TransferJob.Priority.NORMAL);
+        JobWorker<Integer> worker = new JobWorker<Integer>(job, listener) {
+            @Override
+            protected Integer doInBackground() throws Exception {
+                AtomicInteger successCount = new AtomicInteger(0);
+                long totalBytes = 0;
+                for (UploadJournal upload : uploads) {
+                    totalBytes += upload.getFileSize();
+                }
+                TransferProgress progress = new TransferProgress(listener, job, uploads.size(), totalBytes);
+
+                for (UploadJournal upload : uploads) {
+                    String fileName = upload.getFile().getName();
+                    if (!upload.isFileUnchanged()) {
+                        progress.fileCompleted();
+                        publish("Skipped " + fileName + ": file changed since the upload started");
+                        discard(upload);
+                        continue;
+                    }
+                    scheduler.submit(job, () -> {
+                        try {
+                            storageService.resumeUpload(upload.getBucket(), upload.getKey(), upload.getFile(),
+                                    upload.getUploadId(), upload.getPartSize(), upload.track(progress));
+                            upload.delete();
+                            successCount.incrementAndGet();
+                            int completed = progress.fileCompleted();
+                            publish("Uploaded " + fileName + " (" + completed + "/" + uploads.size() + ")");
+                        } catch (StorageException | RuntimeException ex) {
+                            progress.fileCompleted();
+                            publish("Failed to resume " + fileName + ": " + ex.getMessage());
+                        }
+                        return null;
+                    });
+                }
+                job.awaitTasks();
+                return successCount.get();
+            }
+
+            @Override
+            protected void finished() {
+                try {
+                    int successCount = get();
+                    if (successCount == 0) {
+                        failed("Could not resume any interrupted upload");
+                    } else {
+                        completed("Resumed " + successCount + " of " + uploads.size() + " uploads");
+                    }
+                } catch (Exception ex) {
+                    failed("Resume error: " + ex.getMessage());
+                }
+            }
+        };
+
+        listener.onOperationStarted("Resuming " + uploads.size() + " interrupted uploads...");
+        worker.execute();
+    }
+
+    @Override
+    public void discardUploads(List<UploadJournal> uploads, FileOperationListener listener) {
+        SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() {
+                for (UploadJournal upload : uploads) {
+                    discard(upload);
+                }
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                listener.onOperationCompleted("Discarded " + uploads.size() + " interrupted uploads");
+            }
+        };
+
+        listener.onOperationStarted("Discarding interrupted uploads...");
+        worker.execute();
+    }
+
+    private void discard(UploadJournal upload) {
+        try {
+            if (upload.getUploadId() != null) {
+                storageService.abortUpload(upload.getBucket(), upload.getKey(), upload.getUploadId());
+            }
+            upload.delete();
+        } catch (StorageException ex) {
+            ex.printStackTrace();
+        }
+    }
+}
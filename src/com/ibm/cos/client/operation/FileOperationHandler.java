@@ -1,14 +1,56 @@
 package com.ibm.cos.client.operation;
 
+import com.ibm.cos.client.sync.SyncDirection;
+
 import java.io.File;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interface for file operations on cloud storage.
  * Follows Interface Segregation Principle - each operation has its own interface.
  */
 public interface FileOperationHandler {
+    /**
+     * Uploads files under a prefix. Folders are uploaded recursively, keeping their
+     * structure below a key named after the folder.
+     */
     void uploadFiles(List<File> files, String bucket, String prefix, FileOperationListener listener);
     void downloadFiles(List<String> keys, String bucket, File targetDirectory, FileOperationListener listener);
     void deleteFiles(List<String> keys, String bucket, FileOperationListener listener);
+    
+    /**
+     * Copies objects and folders on the server, without transferring their data
+     * @param destinations each source key mapped to its new key; keys ending with "/" are folders
+     */
+    void copyFiles(Map<String, String> destinations, String bucket, FileOperationListener listener);
+    
+    /**
+     * Moves or renames objects and folders on the server by copying them and deleting the originals
+     * @param destinations each source key mapped to its new key; keys ending with "/" are folders
+     */
+    void moveFiles(Map<String, String> destinations, String bucket, FileOperationListener listener);
+    
+    /**
+     * Brings a local folder and a prefix in line, transferring only the files that differ
+     * @param localDirectory the local folder
+     * @param bucket the bucket
+     * @param prefix the prefix the folder corresponds to
+     * @param direction which side is updated
+     * @param listener receives progress and the outcome
+     */
+    void syncFolder(File localDirectory, String bucket, String prefix, SyncDirection direction,
+                    FileOperationListener listener);
+    
+    /**
+     * @return multipart uploads left unfinished by an earlier session
+     */
+    List<UploadJournal> findInterruptedUploads();
+    void resumeUploads(List<UploadJournal> uploads, FileOperationListener listener);
+    void discardUploads(List<UploadJournal> uploads, FileOperationListener listener);
+    
+    /**
+     * @return the scheduler running this handler's jobs, for pausing, re-prioritizing and cancelling them
+     */
+    TransferScheduler getScheduler();
 }
\ No newline at end of file
@@ -9,4 +9,14 @@ public interface FileOperationListener {
     void onOperationProgress(String message);
     void onOperationCompleted(String message);
     void onOperationFailed(String message);
-}
\ No newline at end of file
+    
+    /**
+     * Reports the aggregate progress of a transfer. Called on the event dispatch thread.
+     * @param completedFiles files finished so far (successfully or not)
+     * @param totalFiles files in the operation
+     * @param bytesTransferred bytes transferred so far
+     * @param totalBytes bytes in the operation
+     */
+    default void onTransferProgress(int completedFiles, int totalFiles, long bytesTransferred, long totalBytes) {
+    }
+}
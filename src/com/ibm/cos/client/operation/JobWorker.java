@@ -0,0 +1,56 @@
+package com.ibm.cos.client.operation;
+
+import javax.swing.*;
+import java.util.List;
+
+/**
+ * Background worker that produces the tasks of one scheduler job.
+ * Progress messages go to both the listener and the job's queue entry, and a job
+ * cancelled from the queue is reported as cancelled instead of as a failure.
+ */
+abstract class JobWorker<T> extends SwingWorker<T, String> {
+    protected final TransferJob job;
+    private final FileOperationListener listener;
+
+    JobWorker(TransferJob job, FileOperationListener listener) {
+        this.job = job;
+        this.listener = listener;
+        job.setProducer(this);
+    }
+
+    @Override
+    protected void process(List<String> chunks) {
+        if (!chunks.isEmpty()) {
+            String message = chunks.get(chunks.size() - 1);
+            job.setStatus(message);
+            listener.onOperationProgress(message);
+        }
+    }
+
+    @Override
+    protected final void done() {
+        if (job.isCancelled()) {
+            job.setStatus("Cancelled");
+            listener.onOperationCompleted(job.getDescription() + " cancelled");
+            return;
+        }
+        finished();
+    }
+
+    /**
+     * Reports the outcome once the job ran to its end, on the event dispatch thread
+     */
+    protected abstract void finished();
+
+    protected void completed(String message) {
+        job.finish(true);
+        job.setStatus(message);
+        listener.onOperationCompleted(message);
+    }
+
+    protected void failed(String message) {
+        job.finish(false);
+        job.setStatus(message);
+        listener.onOperationFailed(message);
+    }
+}
@@ -0,0 +1,247 @@
+package com.ibm.cos.client.operation;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * One operation on the transfer scheduler: an upload, download, sync, copy or delete.
+ * <p>
+ * The job owns the tasks it submitted, so it can be paused, resumed, re-prioritized
+ * and cancelled as a unit. Pausing holds back tasks that have not started and lets
+ * running ones finish. Cancelling drops queued tasks and interrupts running ones,
+ * which makes the storage client abort their requests at the next read or write.
+ */
+public class TransferJob {
+    public enum Priority {
+        HIGH("High"), NORMAL("Normal"), LOW("Low");
+
+        private final String label;
+
+        Priority(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    public enum State {
+        QUEUED("Queued"), RUNNING("Running"), PAUSED("Paused"),
+        COMPLETED("Completed"), FAILED("Failed"), CANCELLED("Cancelled");
+
+        private final String label;
+
+        State(String label) {
+            this.label = label;
+        }
+
+        public boolean isFinished() {
+            return this == COMPLETED || this == FAILED || this == CANCELLED;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private final TransferScheduler scheduler;
+    private final String description;
+    private final Semaphore slots;
+    private final Set<TransferScheduler.ScheduledTask<?>> tasks = new HashSet<>();
+    private final List<TransferScheduler.ScheduledTask<?>> parked = new ArrayList<>();
+    private volatile Priority priority;
+    private State state = State.RUNNING;
+    private int runningTasks;
+    private Future<?> producer;
+    private volatile String status = "";
+    private volatile long[] progress;
+
+    TransferJob(TransferScheduler scheduler, String description, Priority priority, int queuedTasks) {
+        this.scheduler = scheduler;
+        this.description = description;
+        this.priority = priority;
+        this.slots = new Semaphore(queuedTasks);
+    }
+
+    /**
+     * Holds back the tasks that have not started yet
+     */
+    public synchronized void pause() {
+        if (state == State.RUNNING) {
+            state = State.PAUSED;
+        }
+    }
+
+    public synchronized void resume() {
+        if (state != State.PAUSED) {
+            return;
+        }
+        state = State.RUNNING;
+        scheduler.requeue(parked);
+        parked.clear();
+        notifyAll();
+    }
+
+    /**
+     * Stops the job: queued tasks are dropped and running ones interrupted
+     */
+    public void cancel() {
+        List<TransferScheduler.ScheduledTask<?>> pending;
+        Future<?> producerToCancel;
+        synchronized (this) {
+            if (state.isFinished()) {
+                return;
+            }
+            state = State.CANCELLED;
+            pending = new ArrayList<>(tasks);
+            parked.clear();
+            producerToCancel = producer;
+            notifyAll();
+        }
+        if (producerToCancel != null) {
+            producerToCancel.cancel(true);
+        }
+        scheduler.cancel(pending);
+    }
+
+    /**
+     * Lets this job's queued tasks go ahead of, or behind, those of other jobs
+     */
+    public synchronized void setPriority(Priority priority) {
+        this.priority = priority;
+        scheduler.reprioritize(tasks, priority);
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    /**
+     * @return the state, reported as queued while the job waits for its first transfer slot
+     */
+    public synchronized State getState() {
+        if (state == State.RUNNING && runningTasks == 0 && !tasks.isEmpty()) {
+            return State.QUEUED;
+        }
+        return state;
+    }
+
+    public synchronized boolean isCancelled() {
+        return state == State.CANCELLED;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * @return the latest progress message
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    void setStatus(String status) {
+        this.status = status;
+    }
+
+    /**
+     * @return completed files, total files, bytes transferred and total bytes, or null if not reported
+     */
+    public long[] getProgress() {
+        return progress;
+    }
+
+    void updateProgress(int completedFiles, int totalFiles, long bytesTransferred, long totalBytes) {
+        progress = new long[]{completedFiles, totalFiles, bytesTransferred, totalBytes};
+    }
+
+    /**
+     * Sets the background worker that produces this job's tasks, so cancelling interrupts it too
+     */
+    synchronized void setProducer(Future<?> producer) {
+        this.producer = producer;
+    }
+
+    /**
+     * Records how the job ended, unless it was cancelled
+     */
+    synchronized void finish(boolean succeeded) {
+        if (!state.isFinished()) {
+            state = succeeded ? State.COMPLETED : State.FAILED;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Blocks the producer while the job is paused, for work done outside of tasks
+     * @throws InterruptedException if the job is cancelled
+     */
+    synchronized void awaitIfPaused() throws InterruptedException {
+        while (state == State.PAUSED) {
+            wait();
+        }
+        if (state == State.CANCELLED) {
+            throw new InterruptedException("Job cancelled");
+        }
+    }
+
+    /**
+     * Waits until every task submitted so far has finished or been cancelled
+     */
+    synchronized void awaitTasks() throws InterruptedException {
+        while (!tasks.isEmpty()) {
+            wait();
+        }
+    }
+
+    void acquireSlot() throws InterruptedException {
+        slots.acquire();
+    }
+
+    void releaseSlot() {
+        slots.release();
+    }
+
+    synchronized boolean register(TransferScheduler.ScheduledTask<?> task) {
+        if (state == State.CANCELLED) {
+            return false;
+        }
+        tasks.add(task);
+        return true;
+    }
+
+    /**
+     * Called by a worker about to run a task
+     * @return false if the task was parked because the job is paused
+     */
+    synchronized boolean beforeRun(TransferScheduler.ScheduledTask<?> task) {
+        if (state == State.PAUSED) {
+            parked.add(task);
+            return false;
+        }
+        runningTasks++;
+        return true;
+    }
+
+    synchronized void afterRun() {
+        runningTasks--;
+    }
+
+    void taskDone(TransferScheduler.ScheduledTask<?> task) {
+        synchronized (this) {
+            if (!tasks.remove(task)) {
+                return;
+            }
+            notifyAll();
+        }
+        releaseSlot();
+    }
+}
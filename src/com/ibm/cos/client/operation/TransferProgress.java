@@ -0,0 +1,86 @@
+package com.ibm.cos.client.operation;
+
+import com.ibm.cos.client.service.TransferProgressListener;
+
+import javax.swing.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Aggregates progress of the files in one operation and forwards it to the
+ * listener and the scheduler job on the event dispatch thread, at most every
+ * few milliseconds.
+ */
+class TransferProgress implements TransferProgressListener {
+    private static final long NOTIFY_INTERVAL_MS = 100;
+
+    private final FileOperationListener listener;
+    private final TransferJob job;
+    private final AtomicInteger totalFiles;
+    private final AtomicLong totalBytes;
+    private final AtomicInteger completedFiles = new AtomicInteger(0);
+    private final AtomicLong bytesTransferred = new AtomicLong(0);
+    private final AtomicLong lastNotified = new AtomicLong(0);
+    private final AtomicBoolean notificationPending = new AtomicBoolean(false);
+
+    TransferProgress(FileOperationListener listener, TransferJob job, int totalFiles, long totalBytes) {
+        this.listener = listener;
+        this.job = job;
+        this.totalFiles = new AtomicInteger(totalFiles);
+        this.totalBytes = new AtomicLong(totalBytes);
+    }
+
+    @Override
+    public void onBytesTransferred(long bytes) {
+        bytesTransferred.addAndGet(bytes);
+        notifyListener(false);
+    }
+
+    /**
+     * Adds a file discovered after the operation started
+     * @param bytes the size of the file
+     */
+    void fileAdded(long bytes) {
+        totalFiles.incrementAndGet();
+        totalBytes.addAndGet(bytes);
+        notifyListener(false);
+    }
+
+    /**
+     * Marks one file as finished
+     * @return the number of files finished so far
+     */
+    int fileCompleted() {
+        int completed = completedFiles.incrementAndGet();
+        notifyListener(completed == totalFiles.get());
+        return completed;
+    }
+
+    int getTotalFiles() {
+        return totalFiles.get();
+    }
+
+    private void notifyListener(boolean force) {
+        long now = System.currentTimeMillis();
+        long last = lastNotified.get();
+        if (!force && now - last < NOTIFY_INTERVAL_MS) {
+            return;
+        }
+        if (!lastNotified.compareAndSet(last, now) && !force) {
+            return;
+        }
+        // Coalesce: never queue more than one pending update on the EDT
+        if (notificationPending.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(() -> {
+                notificationPending.set(false);
+                int completed = completedFiles.get();
+                int files = totalFiles.get();
+                long transferred = bytesTransferred.get();
+                long bytes = totalBytes.get();
+                job.updateProgress(completed, files, transferred, bytes);
+                listener.onTransferProgress(completed, files, transferred, bytes);
+            });
+        }
+    }
+}
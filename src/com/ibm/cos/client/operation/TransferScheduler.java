@@ -0,0 +1,204 @@
+package com.ibm.cos.client.operation;
+
+import com.ibm.cos.client.util.DaemonThreadFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Worker pool shared by every transfer job of a connection.
+ * <p>
+ * A fixed number of workers caps the transfers running at once across all jobs.
+ * Waiting tasks are ordered by their job's priority and then by submission, so a
+ * high-priority job's tasks start before those already queued by bulk jobs.
+ * Submitting blocks once a job has a few tasks per worker waiting, so producers
+ * never hold more than that in memory.
+ */
+public class TransferScheduler {
+    private static final int QUEUED_TASKS_PER_WORKER = 2;
+
+    private final int maxConcurrency;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong sequence = new AtomicLong(0);
+    private final List<TransferJob> jobs = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param concurrency transfers run at once; also the most setConcurrency allows, since the
+     *                    connection pool is sized for it
+     */
+    public TransferScheduler(int concurrency) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("Concurrency must be positive");
+        }
+
+        this.maxConcurrency = concurrency;
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 30, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<>(), new DaemonThreadFactory("transfer"));
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Registers a new job for the queue view
+     * @param description what the job does, as shown to the user
+     * @param priority the initial priority
+     * @return the job
+     */
+    public TransferJob createJob(String description, TransferJob.Priority priority) {
+        TransferJob job = new TransferJob(this, description, priority,
+                getConcurrency() * (QUEUED_TASKS_PER_WORKER + 1));
+        jobs.add(job);
+        return job;
+    }
+
+    /**
+     * Submits a task of a job, waiting while the job already has enough tasks queued
+     * @param job the job the task belongs to
+     * @param task the task to run
+     * @return future for the task result
+     * @throws InterruptedException if interrupted while waiting, or if the job was cancelled
+     */
+    public <T> Future<T> submit(TransferJob job, Callable<T> task) throws InterruptedException {
+        job.acquireSlot();
+        ScheduledTask<T> scheduled;
+        // Queued under the job's lock, so a priority change cannot re-rank the task while it is being inserted
+        synchronized (job) {
+            scheduled = new ScheduledTask<>(job, task, sequence.incrementAndGet());
+            if (!job.register(scheduled)) {
+                job.releaseSlot();
+                throw new InterruptedException("Job cancelled");
+            }
+            try {
+                executor.execute(scheduled);
+            } catch (RejectedExecutionException e) {
+                scheduled.cancel(false);
+                throw e;
+            }
+        }
+        return scheduled;
+    }
+
+    /**
+     * @return the jobs, oldest first
+     */
+    public List<TransferJob> getJobs() {
+        return new ArrayList<>(jobs);
+    }
+
+    /**
+     * Drops completed, failed and cancelled jobs from the list
+     */
+    public void removeFinishedJobs() {
+        jobs.removeIf(job -> job.getState().isFinished());
+    }
+
+    /**
+     * Changes how many transfers may run at once across all jobs. Running transfers
+     * are not interrupted; the pool shrinks as they finish.
+     * @param concurrency the new limit, at most the concurrency the scheduler was created with
+     */
+    public synchronized void setConcurrency(int concurrency) {
+        if (concurrency <= 0 || concurrency > maxConcurrency) {
+            throw new IllegalArgumentException("Concurrency must be between 1 and " + maxConcurrency);
+        }
+        if (concurrency > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(concurrency);
+            executor.setCorePoolSize(concurrency);
+        } else {
+            executor.setCorePoolSize(concurrency);
+            executor.setMaximumPoolSize(concurrency);
+        }
+    }
+
+    public int getConcurrency() {
+        return executor.getCorePoolSize();
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void shutdown() {
+        for (TransferJob job : jobs) {
+            job.cancel();
+        }
+        executor.shutdownNow();
+    }
+
+    /**
+     * Puts parked tasks back in the queue; callers hold the job's lock
+     */
+    void requeue(Collection<ScheduledTask<?>> tasks) {
+        for (ScheduledTask<?> task : tasks) {
+            if (!task.isDone()) {
+                executor.execute(task);
+            }
+        }
+    }
+
+    void cancel(Collection<ScheduledTask<?>> tasks) {
+        for (ScheduledTask<?> task : tasks) {
+            executor.getQueue().remove(task);
+            task.cancel(true);
+        }
+    }
+
+    /**
+     * Re-sorts waiting tasks under a new priority. A task's rank only changes while it is
+     * out of the queue, so the queue's ordering stays consistent. Callers hold the job's
+     * lock, as submit and requeue do while inserting its tasks.
+     */
+    void reprioritize(Collection<ScheduledTask<?>> tasks, TransferJob.Priority priority) {
+        for (ScheduledTask<?> task : tasks) {
+            if (executor.getQueue().remove(task)) {
+                task.rank = priority.ordinal();
+                executor.execute(task);
+            } else {
+                task.rank = priority.ordinal();
+            }
+        }
+    }
+
+    /**
+     * A task waiting in, or taken from, the priority queue
+     */
+    static class ScheduledTask<T> extends FutureTask<T> implements Comparable<ScheduledTask<?>> {
+        private final TransferJob job;
+        private final long sequence;
+        private volatile int rank;
+
+        ScheduledTask(TransferJob job, Callable<T> task, long sequence) {
+            super(task);
+            this.job = job;
+            this.sequence = sequence;
+            this.rank = job.getPriority().ordinal();
+        }
+
+        @Override
+        public void run() {
+            if (isDone() || !job.beforeRun(this)) {
+                return;
+            }
+            try {
+                super.run();
+            } finally {
+                job.afterRun();
+            }
+        }
+
+        @Override
+        protected void done() {
+            job.taskDone(this);
+        }
+
+        @Override
+        public int compareTo(ScheduledTask<?> other) {
+            if (rank != other.rank) {
+                return Integer.compare(rank, other.rank);
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
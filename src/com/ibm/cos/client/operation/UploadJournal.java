@@ -0,0 +1,222 @@
+package com.ibm.cos.client.operation;
+
+import com.ibm.cos.client.service.ResumableUploadListener;
+import com.ibm.cos.client.service.TransferProgressListener;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Local record of a multipart upload in progress, kept so the upload can be
+ * resumed after the application is closed or crashes.
+ * The upload details live in a small properties file written once; completed
+ * parts are appended to a companion log as the server acknowledges them.
+ */
+public class UploadJournal {
+    private static final String HEADER_SUFFIX = ".upload";
+    private static final String PARTS_SUFFIX = ".parts";
+
+    private final File headerFile;
+    private final File partsFile;
+    private final String bucket;
+    private final String key;
+    private final File file;
+    private final long fileSize;
+    private final long fileModified;
+    private final SortedMap<Integer, String> parts = new TreeMap<>();
+    private String uploadId;
+    private long partSize;
+
+    public UploadJournal(File directory, String bucket, String key, File file) {
+        this(directory, bucket, key, file, file.length(), file.lastModified());
+    }
+
+    private UploadJournal(File directory, String bucket, String key, File file, long fileSize, long fileModified) {
+        String id = journalId(bucket, key);
+        this.headerFile = new File(directory, id + HEADER_SUFFIX);
+        this.partsFile = new File(directory, id + PARTS_SUFFIX);
+        this.bucket = bucket;
+        this.key = key;
+        this.file = file;
+        this.fileSize = fileSize;
+        this.fileModified = fileModified;
+    }
+
+    /**
+     * Loads every journal left in a directory by unfinished uploads
+     * @param directory the journal directory
+     * @return the journals that could be read
+     */
+    public static List<UploadJournal> loadAll(File directory) {
+        List<UploadJournal> journals = new ArrayList<>();
+        File[] headers = directory.listFiles((dir, name) -> name.endsWith(HEADER_SUFFIX));
+        if (headers == null) {
+            return journals;
+        }
+        for (File header : headers) {
+            try {
+                journals.add(load(directory, header));
+            } catch (IOException | RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+        return journals;
+    }
+
+    private static UploadJournal load(File directory, File header) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = new InputStreamReader(new FileInputStream(header), StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        UploadJournal journal = new UploadJournal(directory,
+                properties.getProperty("bucket"),
+                properties.getProperty("key"),
+                new File(properties.getProperty("file")),
+                Long.parseLong(properties.getProperty("fileSize")),
+                Long.parseLong(properties.getProperty("fileModified")));
+        journal.uploadId = properties.getProperty("uploadId");
+        journal.partSize = Long.parseLong(properties.getProperty("partSize"));
+
+        if (journal.partsFile.exists()) {
+            String records = new String(Files.readAllBytes(journal.partsFile.toPath()), StandardCharsets.UTF_8);
+            // Only lines with their newline were written completely; a part missing here is just sent again
+            int end = records.lastIndexOf('\n');
+            for (String line : records.substring(0, end + 1).split("\n")) {
+                String[] fields = line.trim().split(" ", 2);
+                if (fields.length == 2 && !fields[1].isEmpty()) {
+                    try {
+                        journal.parts.put(Integer.parseInt(fields[0]), fields[1]);
+                    } catch (NumberFormatException e) {
+                        // Skip a damaged record rather than losing the whole journal
+                    }
+                }
+            }
+        }
+        return journal;
+    }
+
+    /**
+     * Wraps a progress listener so multipart events of the upload are written to this journal
+     * @param progressListener receives the byte progress
+     * @return listener to pass to the storage service
+     */
+    public ResumableUploadListener track(TransferProgressListener progressListener) {
+        return new ResumableUploadListener() {
+            @Override
+            public void onBytesTransferred(long bytes) {
+                progressListener.onBytesTransferred(bytes);
+            }
+
+            @Override
+            public void onUploadStarted(String uploadId, long partSize) {
+                started(uploadId, partSize);
+            }
+
+            @Override
+            public void onPartUploaded(int partNumber, String eTag) {
+                partUploaded(partNumber, eTag);
+            }
+        };
+    }
+
+    synchronized void started(String uploadId, long partSize) {
+        this.uploadId = uploadId;
+        this.partSize = partSize;
+        this.parts.clear();
+
+        Properties properties = new Properties();
+        properties.setProperty("bucket", bucket);
+        properties.setProperty("key", key);
+        properties.setProperty("file", file.getAbsolutePath());
+        properties.setProperty("fileSize", Long.toString(fileSize));
+        properties.setProperty("fileModified", Long.toString(fileModified));
+        properties.setProperty("uploadId", uploadId);
+        properties.setProperty("partSize", Long.toString(partSize));
+
+        try {
+            partsFile.delete();
+            File temp = new File(headerFile.getPath() + ".tmp");
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(temp), StandardCharsets.UTF_8)) {
+                properties.store(writer, "Interrupted multipart upload");
+            }
+            Files.move(temp.toPath(), headerFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            // Losing the journal only costs the ability to resume
+            e.printStackTrace();
+        }
+    }
+
+    synchronized void partUploaded(int partNumber, String eTag) {
+        parts.put(partNumber, eTag);
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(partsFile, true), StandardCharsets.UTF_8)) {
+            writer.write(partNumber + " " + eTag + "\n");
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Removes the journal once the upload has completed or been discarded
+     */
+    public synchronized void delete() {
+        partsFile.delete();
+        headerFile.delete();
+    }
+
+    /**
+     * @return true if the local file is unchanged since the upload started
+     */
+    public boolean isFileUnchanged() {
+        return file.isFile() && file.length() == fileSize && file.lastModified() == fileModified;
+    }
+
+    public String getBucket() {
+        return bucket;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public synchronized String getUploadId() {
+        return uploadId;
+    }
+
+    public synchronized long getPartSize() {
+        return partSize;
+    }
+
+    /**
+     * @return part numbers and ETags recorded so far
+     */
+    public synchronized SortedMap<Integer, String> getParts() {
+        return new TreeMap<>(parts);
+    }
+
+    private static String journalId(String bucket, String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] hash = digest.digest((bucket + "\n" + key).getBytes(StandardCharsets.UTF_8));
+            StringBuilder id = new StringBuilder();
+            for (byte b : hash) {
+                id.append(String.format("%02x", b));
+            }
+            return id.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 not available", e);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.ibm.cos.client.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Small pool of byte arrays reused across downloads, so streaming to disk
+ * does not allocate a buffer per transfer.
+ */
+class BufferPool {
+    private final int bufferSize;
+    private final BlockingQueue<byte[]> buffers;
+
+    BufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.buffers = new ArrayBlockingQueue<>(maxPooled);
+    }
+
+    byte[] acquire() {
+        byte[] buffer = buffers.poll();
+        return buffer != null ? buffer : new byte[bufferSize];
+    }
+
+    void release(byte[] buffer) {
+        // Extra buffers beyond the pool capacity are left to the garbage collector
+        buffers.offer(buffer);
+    }
+}
@@ -0,0 +1,265 @@
+package com.ibm.cos.client.service;
+
+import com.ibm.cos.client.model.FileItem;
+
+import java.io.File;
+import java.util.*;
+
+/**
+ * Decorator that caches folder listings per (bucket, prefix).
+ * Entries expire after a time-to-live, the least recently used entries are evicted
+ * beyond a size limit, and uploads, copies and deletes made through this service invalidate
+ * exactly the listings that could show the changed keys.
+ * Follows Open/Closed Principle - adds caching without changing the wrapped service.
+ */
+public class CachingCloudStorageService implements CloudStorageService {
+    public static final long DEFAULT_TTL_MILLIS = 60_000;
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+
+    private final CloudStorageService delegate;
+    private final long ttlMillis;
+    private final Map<String, CachedListing> cache;
+    /** Bumped on every invalidation so listings that raced with a mutation are not stored */
+    private long generation;
+
+    public CachingCloudStorageService(CloudStorageService delegate) {
+        this(delegate, DEFAULT_TTL_MILLIS, DEFAULT_MAX_ENTRIES);
+    }
+
+    public CachingCloudStorageService(CloudStorageService delegate, long ttlMillis, int maxEntries) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate cannot be null");
+        }
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("TTL must be positive");
+        }
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Max entries must be positive");
+        }
+
+        this.delegate = delegate;
+        this.ttlMillis = ttlMillis;
+        this.cache = new LinkedHashMap<String, CachedListing>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedListing> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Drops the cached listing of one prefix so the next listing goes to the server
+     * @param bucketName the bucket name
+     * @param prefix the listed prefix
+     */
+    public synchronized void invalidate(String bucketName, String prefix) {
+        cache.remove(cacheKey(bucketName, prefix));
+        generation++;
+    }
+
+    /**
+     * @param bucketName the bucket name
+     * @param prefix the listed prefix
+     * @return true if a listing of the prefix is cached and has not expired
+     */
+    public synchronized boolean isCached(String bucketName, String prefix) {
+        CachedListing cached = cache.get(cacheKey(bucketName, prefix));
+        return cached != null && !cached.isExpired(ttlMillis);
+    }
+
+    /**
+     * Drops every cached listing
+     */
+    public synchronized void invalidateAll() {
+        cache.clear();
+        generation++;
+    }
+
+    @Override
+    public List<String> listBuckets() throws StorageException {
+        return delegate.listBuckets();
+    }
+
+    @Override
+    public List<FileItem> listObjects(String bucketName, String prefix) throws StorageException {
+        List<FileItem> items = new ArrayList<>();
+        listObjects(bucketName, prefix, page -> {
+            items.addAll(page);
+            return true;
+        });
+        return items;
+    }
+
+    @Override
+    public void listObjects(String bucketName, String prefix, ListingPageListener listener) throws StorageException {
+        String key = cacheKey(bucketName, prefix);
+        CachedListing cached;
+        long startGeneration;
+        synchronized (this) {
+            cached = cache.get(key);
+            startGeneration = generation;
+        }
+        if (cached != null && !cached.isExpired(ttlMillis)) {
+            listener.onPage(cached.items);
+            return;
+        }
+
+        List<FileItem> collected = new ArrayList<>();
+        boolean[] complete = {true};
+        delegate.listObjects(bucketName, prefix, page -> {
+            collected.addAll(page);
+            if (!listener.onPage(page)) {
+                complete[0] = false;
+                return false;
+            }
+            return true;
+        });
+
+        if (complete[0]) {
+            synchronized (this) {
+                if (generation == startGeneration) {
+                    cache.put(key, new CachedListing(Collections.unmodifiableList(collected)));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void listObjectsRecursively(String bucketName, String prefix, ListingPageListener listener) throws StorageException {
+        delegate.listObjectsRecursively(bucketName, prefix, listener);
+    }
+
+    @Override
+    public String uploadFile(String bucketName, String key, File file) throws StorageException {
+        try {
+            return delegate.uploadFile(bucketName, key, file);
+        } finally {
+            invalidateAncestors(bucketName, key);
+        }
+    }
+
+    @Override
+    public String uploadFile(String bucketName, String key, File file, TransferProgressListener progressListener) throws StorageException {
+        try {
+            return delegate.uploadFile(bucketName, key, file, progressListener);
+        } finally {
+            invalidateAncestors(bucketName, key);
+        }
+    }
+
+    @Override
+    public String resumeUpload(String bucketName, String key, File file, String uploadId, long partSize,
+                               TransferProgressListener progressListener) throws StorageException {
+        try {
+            return delegate.resumeUpload(bucketName, key, file, uploadId, partSize, progressListener);
+        } finally {
+            invalidateAncestors(bucketName, key);
+        }
+    }
+
+    @Override
+    public void abortUpload(String bucketName, String key, String uploadId) throws StorageException {
+        delegate.abortUpload(bucketName, key, uploadId);
+    }
+
+    @Override
+    public void downloadFile(String bucketName, String key, File targetFile) throws StorageException {
+        delegate.downloadFile(bucketName, key, targetFile);
+    }
+
+    @Override
+    public void downloadFile(String bucketName, String key, File targetFile, TransferProgressListener progressListener) throws StorageException {
+        delegate.downloadFile(bucketName, key, targetFile, progressListener);
+    }
+
+    @Override
+    public void deleteObject(String bucketName, String key) throws StorageException {
+        try {
+            delegate.deleteObject(bucketName, key);
+        } finally {
+            invalidateAncestors(bucketName, key);
+        }
+    }
+
+    @Override
+    public DeleteResult deleteObjects(String bucketName, Collection<String> keys) throws StorageException {
+        try {
+            return delegate.deleteObjects(bucketName, keys);
+        } finally {
+            for (String key : keys) {
+                invalidateAncestors(bucketName, key);
+            }
+        }
+    }
+
+    @Override
+    public void copyObject(String bucketName, String sourceKey, String destinationKey) throws StorageException {
+        try {
+            delegate.copyObject(bucketName, sourceKey, destinationKey);
+        } finally {
+            invalidateAncestors(bucketName, destinationKey);
+        }
+    }
+
+    @Override
+    public void copyObject(String bucketName, String sourceKey, String destinationKey, long size) throws StorageException {
+        try {
+            delegate.copyObject(bucketName, sourceKey, destinationKey, size);
+        } finally {
+            invalidateAncestors(bucketName, destinationKey);
+        }
+    }
+
+    @Override
+    public void moveObject(String bucketName, String sourceKey, String destinationKey) throws StorageException {
+        try {
+            delegate.moveObject(bucketName, sourceKey, destinationKey);
+        } finally {
+            invalidateAncestors(bucketName, sourceKey);
+            invalidateAncestors(bucketName, destinationKey);
+        }
+    }
+
+    @Override
+    public List<FileItem> searchObjectsRecursively(String bucketName, String searchTerm) throws StorageException {
+        return delegate.searchObjectsRecursively(bucketName, searchTerm);
+    }
+
+    @Override
+    public void searchObjectsRecursively(String bucketName, String searchTerm, SearchResultListener listener) throws StorageException {
+        delegate.searchObjectsRecursively(bucketName, searchTerm, listener);
+    }
+
+    /**
+     * Invalidates the listing that contains the key and the listings of every enclosing
+     * folder, since a new or vanished key can add or remove a folder at any of those levels
+     */
+    private synchronized void invalidateAncestors(String bucketName, String key) {
+        String path = key.endsWith("/") ? key.substring(0, key.length() - 1) : key;
+        int slash = path.lastIndexOf('/');
+        while (slash >= 0) {
+            cache.remove(cacheKey(bucketName, path.substring(0, slash + 1)));
+            slash = path.lastIndexOf('/', slash - 1);
+        }
+        cache.remove(cacheKey(bucketName, ""));
+        generation++;
+    }
+
+    private static String cacheKey(String bucketName, String prefix) {
+        return bucketName.trim() + "\n" + (prefix != null ? prefix.trim() : "");
+    }
+
+    private static class CachedListing {
+        private final List<FileItem> items;
+        private final long loadedAt;
+
+        CachedListing(List<FileItem> items) {
+            this.items = items;
+            this.loadedAt = System.currentTimeMillis();
+        }
+
+        boolean isExpired(long ttlMillis) {
+            return System.currentTimeMillis() - loadedAt > ttlMillis;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.ibm.cos.client.service;
 
 import com.ibm.cos.client.model.FileItem;
 import java.io.File;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -25,14 +26,68 @@ public interface CloudStorageService {
      */
     List<FileItem> listObjects(String bucketName, String prefix) throws StorageException;
     
+    /**
+     * Lists objects in a bucket page by page, handing each page to the listener as soon as it arrives
+     * @param bucketName the bucket name
+     * @param prefix the prefix to filter by (can be null or empty)
+     * @param listener receives every page; returning false stops the listing
+     * @throws StorageException if operation fails
+     */
+    void listObjects(String bucketName, String prefix, ListingPageListener listener) throws StorageException;
+    
+    /**
+     * Lists every object under a prefix, at any depth, page by page. Items are named by their full key.
+     * @param bucketName the bucket name
+     * @param prefix the prefix to list under (can be null or empty for the whole bucket)
+     * @param listener receives every page; returning false stops the listing
+     * @throws StorageException if operation fails
+     */
+    void listObjectsRecursively(String bucketName, String prefix, ListingPageListener listener) throws StorageException;
+    
     /**
      * Uploads a file to the specified bucket and key
      * @param bucketName the target bucket
      * @param key the object key
      * @param file the file to upload
+     * @return the ETag of the stored object
      * @throws StorageException if upload fails
      */
-    void uploadFile(String bucketName, String key, File file) throws StorageException;
+    String uploadFile(String bucketName, String key, File file) throws StorageException;
+    
+    /**
+     * Uploads a file to the specified bucket and key, reporting progress as bytes are sent
+     * @param bucketName the target bucket
+     * @param key the object key
+     * @param file the file to upload
+     * @param progressListener receives the number of bytes sent (can be null)
+     * @return the ETag of the stored object
+     * @throws StorageException if upload fails
+     */
+    String uploadFile(String bucketName, String key, File file, TransferProgressListener progressListener) throws StorageException;
+    
+    /**
+     * Continues an interrupted multipart upload, sending only the parts not yet stored on the server.
+     * Starts a new upload if the previous one no longer exists.
+     * @param bucketName the target bucket
+     * @param key the object key
+     * @param file the file being uploaded
+     * @param uploadId the id of the interrupted multipart upload
+     * @param partSize the part size the upload was started with
+     * @param progressListener receives the number of bytes sent (can be null)
+     * @return the ETag of the stored object
+     * @throws StorageException if upload fails
+     */
+    String resumeUpload(String bucketName, String key, File file, String uploadId, long partSize,
+                      TransferProgressListener progressListener) throws StorageException;
+    
+    /**
+     * Aborts a multipart upload, discarding the parts stored so far
+     * @param bucketName the target bucket
+     * @param key the object key
+     * @param uploadId the id of the multipart upload
+     * @throws StorageException if the abort fails
+     */
+    void abortUpload(String bucketName, String key, String uploadId) throws StorageException;
     
     /**
      * Downloads an object to a local file
@@ -43,6 +98,16 @@ public interface CloudStorageService {
      */
     void downloadFile(String bucketName, String key, File targetFile) throws StorageException;
     
+    /**
+     * Downloads an object to a local file, fetching large objects as parallel byte ranges
+     * @param bucketName the source bucket
+     * @param key the object key
+     * @param targetFile the target local file
+     * @param progressListener receives the number of bytes received (can be null)
+     * @throws StorageException if download fails
+     */
+    void downloadFile(String bucketName, String key, File targetFile, TransferProgressListener progressListener) throws StorageException;
+    
     /**
      * Deletes an object from the bucket
      * @param bucketName the bucket name
@@ -51,12 +116,60 @@ public interface CloudStorageService {
      */
     void deleteObject(String bucketName, String key) throws StorageException;
     
+    /**
+     * Deletes many objects using multi-object delete requests of up to 1,000 keys, sent concurrently
+     * @param bucketName the bucket name
+     * @param keys the object keys
+     * @return the number of deleted objects and the error for every key that failed
+     * @throws StorageException if the batches could not be run
+     */
+    DeleteResult deleteObjects(String bucketName, Collection<String> keys) throws StorageException;
+    
+    /**
+     * Copies an object on the server; no object data passes through the client.
+     * Large objects are copied as parallel part ranges.
+     * @param bucketName the bucket name
+     * @param sourceKey the key to copy
+     * @param destinationKey the key of the copy
+     * @throws StorageException if the copy fails
+     */
+    void copyObject(String bucketName, String sourceKey, String destinationKey) throws StorageException;
+    
+    /**
+     * Copies an object whose size is already known, as from a listing. Objects small enough
+     * for a single copy request are copied without first reading their metadata.
+     * @param bucketName the bucket name
+     * @param sourceKey the key to copy
+     * @param destinationKey the key of the copy
+     * @param size the size of the source object in bytes
+     * @throws StorageException if the copy fails
+     */
+    void copyObject(String bucketName, String sourceKey, String destinationKey, long size) throws StorageException;
+    
+    /**
+     * Moves or renames an object by copying it on the server and deleting the original
+     * @param bucketName the bucket name
+     * @param sourceKey the key to move
+     * @param destinationKey the new key
+     * @throws StorageException if the copy or the delete fails
+     */
+    void moveObject(String bucketName, String sourceKey, String destinationKey) throws StorageException;
+    
     /**
      * Searches for objects recursively in a bucket that contain the search term
      * @param bucketName the bucket name
-     * @param searchTerm the term to search for in object keys
+     * @param searchTerm plain text found anywhere in the key, "glob:" followed by a glob, or "re:" followed by a regular expression
      * @return list of file items that match the search term
      * @throws StorageException if search fails
      */
     List<FileItem> searchObjectsRecursively(String bucketName, String searchTerm) throws StorageException;
+    
+    /**
+     * Searches for objects recursively, reporting matches page by page as the bucket is scanned
+     * @param bucketName the bucket name
+     * @param searchTerm plain text found anywhere in the key, "glob:" followed by a glob, or "re:" followed by a regular expression
+     * @param listener receives the matches and the number of keys checked; returning false stops the search
+     * @throws StorageException if search fails
+     */
+    void searchObjectsRecursively(String bucketName, String searchTerm, SearchResultListener listener) throws StorageException;
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.ibm.cos.client.service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Outcome of a multi-object delete
+ */
+public class DeleteResult {
+    private final int deletedCount;
+    private final Map<String, String> failures;
+    
+    public DeleteResult(int deletedCount, Map<String, String> failures) {
+        this.deletedCount = deletedCount;
+        this.failures = Collections.unmodifiableMap(new LinkedHashMap<>(failures));
+    }
+    
+    public int getDeletedCount() {
+        return deletedCount;
+    }
+    
+    /**
+     * @return the keys that could not be deleted, mapped to the error reported for each
+     */
+    public Map<String, String> getFailures() {
+        return failures;
+    }
+}
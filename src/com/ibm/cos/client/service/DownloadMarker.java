@@ -0,0 +1,116 @@
+package com.ibm.cos.client.service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Sidecar of a partial download. Records the ETag and size of the object being
+ * fetched and every byte range already written to the partial file, so a later
+ * attempt only requests what is missing.
+ */
+class DownloadMarker {
+    private final File file;
+    private final String eTag;
+    private final long objectSize;
+    private final long rangeSize;
+    private final Set<Long> completedRanges = new HashSet<>();
+
+    private DownloadMarker(File file, String eTag, long objectSize, long rangeSize) {
+        this.file = file;
+        this.eTag = eTag;
+        this.objectSize = objectSize;
+        this.rangeSize = rangeSize;
+    }
+
+    /**
+     * Writes a new marker, replacing any earlier one
+     */
+    static DownloadMarker create(File file, String eTag, long objectSize, long rangeSize) throws IOException {
+        DownloadMarker marker = new DownloadMarker(file, eTag, objectSize, rangeSize);
+        File temp = new File(file.getPath() + ".tmp");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(temp), StandardCharsets.UTF_8)) {
+            writer.write("etag " + (eTag != null ? eTag : "") + "\n");
+            writer.write("size " + objectSize + "\n");
+            writer.write("rangeSize " + rangeSize + "\n");
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        return marker;
+    }
+
+    /**
+     * Reads an existing marker
+     * @return the marker, or null if there is none or it cannot be read
+     */
+    static DownloadMarker load(File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            String eTag = null;
+            long objectSize = -1;
+            long rangeSize = -1;
+            Set<Long> ranges = new HashSet<>();
+            for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+                String[] fields = line.split(" ");
+                switch (fields[0]) {
+                    case "etag":
+                        eTag = fields.length > 1 ? fields[1] : null;
+                        break;
+                    case "size":
+                        objectSize = Long.parseLong(fields[1]);
+                        break;
+                    case "rangeSize":
+                        rangeSize = Long.parseLong(fields[1]);
+                        break;
+                    case "range":
+                        ranges.add(Long.parseLong(fields[1]));
+                        break;
+                    default:
+                        break;
+                }
+            }
+            if (eTag == null || objectSize < 0 || rangeSize <= 0) {
+                return null;
+            }
+            DownloadMarker marker = new DownloadMarker(file, eTag, objectSize, rangeSize);
+            marker.completedRanges.addAll(ranges);
+            return marker;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Records that the range starting at the given offset is on disk. Safe to call concurrently.
+     */
+    synchronized void markCompleted(long start) throws IOException {
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8)) {
+            writer.write("range " + start + "\n");
+        }
+        completedRanges.add(start);
+    }
+
+    synchronized boolean isCompleted(long start) {
+        return completedRanges.contains(start);
+    }
+
+    void delete() {
+        file.delete();
+    }
+
+    String getETag() {
+        return eTag;
+    }
+
+    long getObjectSize() {
+        return objectSize;
+    }
+
+    long getRangeSize() {
+        return rangeSize;
+    }
+}
@@ -3,22 +3,52 @@ package com.ibm.cos.client.service;
 import com.ibm.cloud.objectstorage.services.s3.AmazonS3;
 import com.ibm.cloud.objectstorage.services.s3.model.*;
 import com.ibm.cos.client.model.FileItem;
+import com.ibm.cos.client.model.SearchPattern;
+import com.ibm.cos.client.model.TransferConfig;
+import com.ibm.cos.client.util.DaemonThreadFactory;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * Implementation of CloudStorageService for IBM Cloud Object Storage
  */
 public class IBMCloudStorageService implements CloudStorageService {
     
+    private static final int MAX_DELETE_BATCH = 1000;
+    /** Smaller objects are copied with a single request */
+    private static final long COPY_MULTIPART_THRESHOLD = 2 * MultipartCopier.COPY_PART_SIZE;
+    
     private final AmazonS3 client;
+    private final TransferConfig transferConfig;
+    private final ExecutorService requestExecutor;
+    private final BufferPool bufferPool;
+    private final ParallelLister parallelLister;
     
     public IBMCloudStorageService(AmazonS3 client) {
+        this(client, new TransferConfig());
+    }
+    
+    public IBMCloudStorageService(AmazonS3 client, TransferConfig transferConfig) {
         if (client == null) {
             throw new IllegalArgumentException("Client cannot be null");
         }
+        if (transferConfig == null) {
+            throw new IllegalArgumentException("Transfer config cannot be null");
+        }
         this.client = client;
+        this.transferConfig = transferConfig;
+        this.requestExecutor = Executors.newFixedThreadPool(transferConfig.getPartConcurrency(),
+                new DaemonThreadFactory("storage-request"));
+        this.bufferPool = new BufferPool(transferConfig.getBufferSize(),
+                transferConfig.getConcurrency() + transferConfig.getPartConcurrency());
+        this.parallelLister = new ParallelLister(client, new ForkJoinPool(transferConfig.getListingConcurrency(),
+                pool -> {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName("storage-listing-" + thread.getPoolIndex());
+                    return thread;
+                }, null, false));
     }
     
     @Override
@@ -37,13 +67,24 @@ public class IBMCloudStorageService implements CloudStorageService {
     
     @Override
     public List<FileItem> listObjects(String bucketName, String prefix) throws StorageException {
+        List<FileItem> items = new ArrayList<>();
+        listObjects(bucketName, prefix, page -> {
+            items.addAll(page);
+            return true;
+        });
+        return items;
+    }
+    
+    @Override
+    public void listObjects(String bucketName, String prefix, ListingPageListener listener) throws StorageException {
         if (bucketName == null || bucketName.trim().isEmpty()) {
             throw new IllegalArgumentException("Bucket name cannot be null or empty");
         }
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
         
         try {
-            List<FileItem> items = new ArrayList<>();
-            
             ListObjectsV2Request request = new ListObjectsV2Request()
                     .withBucketName(bucketName.trim())
                     .withDelimiter("/");
@@ -51,37 +92,69 @@ public class IBMCloudStorageService implements CloudStorageService {
             if (prefix != null && !prefix.trim().isEmpty()) {
                 request.withPrefix(prefix.trim());
             }
-
-            ListObjectsV2Result result = client.listObjectsV2(request);
             
             String actualPrefix = prefix != null ? prefix.trim() : "";
 
-            // Add folders (common prefixes)
-            for (String commonPrefix : result.getCommonPrefixes()) {
-                String folderName = commonPrefix.substring(actualPrefix.length());
-                items.add(new FileItem(folderName, FileItem.ItemType.FOLDER, 0, null));
-            }
+            ListObjectsV2Result result;
+            do {
+                result = client.listObjectsV2(request);
+                List<FileItem> items = new ArrayList<>();
+
+                // Add folders (common prefixes)
+                for (String commonPrefix : result.getCommonPrefixes()) {
+                    String folderName = commonPrefix.substring(actualPrefix.length());
+                    items.add(new FileItem(folderName, FileItem.ItemType.FOLDER, 0, null));
+                }
 
-            // Add files
-            for (S3ObjectSummary objectSummary : result.getObjectSummaries()) {
-                String key = objectSummary.getKey();
-                if (!key.equals(actualPrefix)) {
-                    String fileName = key.substring(actualPrefix.length());
-                    if (!fileName.isEmpty()) {
-                        items.add(new FileItem(fileName, FileItem.ItemType.FILE, 
-                            objectSummary.getSize(), objectSummary.getLastModified()));
+                // Add files
+                for (S3ObjectSummary objectSummary : result.getObjectSummaries()) {
+                    String key = objectSummary.getKey();
+                    if (!key.equals(actualPrefix)) {
+                        String fileName = key.substring(actualPrefix.length());
+                        if (!fileName.isEmpty()) {
+                            items.add(new FileItem(fileName, FileItem.ItemType.FILE, 
+                                objectSummary.getSize(), objectSummary.getLastModified()));
+                        }
                     }
                 }
-            }
-            
-            return items;
+                
+                if (!listener.onPage(items)) {
+                    return;
+                }
+                
+                // Set continuation token for pagination
+                request.setContinuationToken(result.getNextContinuationToken());
+                
+            } while (result.isTruncated());
+        } catch (Exception e) {
+            throw new StorageException("Failed to list objects in bucket: " + bucketName, e);
+        }
+    }
+    
+    @Override
+    public void listObjectsRecursively(String bucketName, String prefix, ListingPageListener listener) throws StorageException {
+        if (bucketName == null || bucketName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Bucket name cannot be null or empty");
+        }
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        
+        try {
+            // Sharded by sub-prefix, so wide buckets are listed by many requests at once
+            parallelLister.list(bucketName.trim(), prefix, listener);
         } catch (Exception e) {
             throw new StorageException("Failed to list objects in bucket: " + bucketName, e);
         }
     }
     
     @Override
-    public void uploadFile(String bucketName, String key, File file) throws StorageException {
+    public String uploadFile(String bucketName, String key, File file) throws StorageException {
+        return uploadFile(bucketName, key, file, null);
+    }
+    
+    @Override
+    public String uploadFile(String bucketName, String key, File file, TransferProgressListener progressListener) throws StorageException {
         if (bucketName == null || bucketName.trim().isEmpty()) {
             throw new IllegalArgumentException("Bucket name cannot be null or empty");
         }
@@ -93,14 +166,72 @@ public class IBMCloudStorageService implements CloudStorageService {
         }
         
         try {
-            client.putObject(bucketName.trim(), key.trim(), file);
+            if (file.length() >= transferConfig.getMultipartThreshold()) {
+                return new MultipartUploader(client, requestExecutor, transferConfig.getPartSize())
+                        .upload(bucketName.trim(), key.trim(), file, progressListener);
+            }
+            
+            PutObjectRequest request = new PutObjectRequest(bucketName.trim(), key.trim(), file);
+            if (progressListener != null) {
+                request.setGeneralProgressListener(new SdkProgressAdapter(progressListener));
+            }
+            return client.putObject(request).getETag();
         } catch (Exception e) {
             throw new StorageException("Failed to upload file: " + file.getName(), e);
         }
     }
     
+    @Override
+    public String resumeUpload(String bucketName, String key, File file, String uploadId, long partSize,
+                               TransferProgressListener progressListener) throws StorageException {
+        if (bucketName == null || bucketName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Bucket name cannot be null or empty");
+        }
+        if (key == null || key.trim().isEmpty()) {
+            throw new IllegalArgumentException("Key cannot be null or empty");
+        }
+        if (file == null || !file.exists()) {
+            throw new IllegalArgumentException("File must exist");
+        }
+        if (uploadId == null || uploadId.isEmpty()) {
+            throw new IllegalArgumentException("Upload id cannot be null or empty");
+        }
+        
+        try {
+            return new MultipartUploader(client, requestExecutor, transferConfig.getPartSize())
+                    .resume(bucketName.trim(), key.trim(), file, uploadId, partSize, progressListener);
+        } catch (Exception e) {
+            throw new StorageException("Failed to resume upload of file: " + file.getName(), e);
+        }
+    }
+    
+    @Override
+    public void abortUpload(String bucketName, String key, String uploadId) throws StorageException {
+        if (bucketName == null || bucketName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Bucket name cannot be null or empty");
+        }
+        if (key == null || key.trim().isEmpty()) {
+            throw new IllegalArgumentException("Key cannot be null or empty");
+        }
+        
+        try {
+            client.abortMultipartUpload(new AbortMultipartUploadRequest(bucketName.trim(), key.trim(), uploadId));
+        } catch (AmazonS3Exception e) {
+            if (!"NoSuchUpload".equals(e.getErrorCode())) {
+                throw new StorageException("Failed to abort upload of: " + key, e);
+            }
+        } catch (Exception e) {
+            throw new StorageException("Failed to abort upload of: " + key, e);
+        }
+    }
+    
     @Override
     public void downloadFile(String bucketName, String key, File targetFile) throws StorageException {
+        downloadFile(bucketName, key, targetFile, null);
+    }
+    
+    @Override
+    public void downloadFile(String bucketName, String key, File targetFile, TransferProgressListener progressListener) throws StorageException {
         if (bucketName == null || bucketName.trim().isEmpty()) {
             throw new IllegalArgumentException("Bucket name cannot be null or empty");
         }
@@ -112,16 +243,8 @@ public class IBMCloudStorageService implements CloudStorageService {
         }
         
         try {
-            S3Object object = client.getObject(bucketName.trim(), key.trim());
-            try (S3ObjectInputStream inputStream = object.getObjectContent();
-                 FileOutputStream outputStream = new FileOutputStream(targetFile)) {
-                
-                byte[] buffer = new byte[8192];
-                int bytesRead;
-                while ((bytesRead = inputStream.read(buffer)) != -1) {
-                    outputStream.write(buffer, 0, bytesRead);
-                }
-            }
+            new RangedDownloader(client, requestExecutor, transferConfig.getPartSize(), bufferPool)
+                    .download(bucketName.trim(), key.trim(), targetFile, progressListener);
         } catch (Exception e) {
             throw new StorageException("Failed to download file: " + key, e);
         }
@@ -144,48 +267,166 @@ public class IBMCloudStorageService implements CloudStorageService {
     }
     
     @Override
-    public List<FileItem> searchObjectsRecursively(String bucketName, String searchTerm) throws StorageException {
+    public DeleteResult deleteObjects(String bucketName, Collection<String> keys) throws StorageException {
         if (bucketName == null || bucketName.trim().isEmpty()) {
             throw new IllegalArgumentException("Bucket name cannot be null or empty");
         }
-        if (searchTerm == null || searchTerm.trim().isEmpty()) {
-            throw new IllegalArgumentException("Search term cannot be null or empty");
+        if (keys == null) {
+            throw new IllegalArgumentException("Keys cannot be null");
+        }
+        
+        List<Future<DeleteResult>> batches = new ArrayList<>();
+        List<String> batch = new ArrayList<>(MAX_DELETE_BATCH);
+        for (String key : keys) {
+            batch.add(key);
+            if (batch.size() == MAX_DELETE_BATCH) {
+                batches.add(submitDeleteBatch(bucketName.trim(), batch));
+                batch = new ArrayList<>(MAX_DELETE_BATCH);
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(submitDeleteBatch(bucketName.trim(), batch));
+        }
+        
+        int deletedCount = 0;
+        Map<String, String> failures = new LinkedHashMap<>();
+        try {
+            for (Future<DeleteResult> result : batches) {
+                deletedCount += result.get().getDeletedCount();
+                failures.putAll(result.get().getFailures());
+            }
+        } catch (Exception e) {
+            for (Future<DeleteResult> result : batches) {
+                result.cancel(true);
+            }
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            throw new StorageException("Failed to delete objects in bucket: " + bucketName, cause);
+        }
+        return new DeleteResult(deletedCount, failures);
+    }
+    
+    private Future<DeleteResult> submitDeleteBatch(String bucketName, List<String> keys) {
+        return requestExecutor.submit(() -> deleteBatch(bucketName, keys));
+    }
+    
+    /**
+     * Sends one multi-object delete; errors are reported per key instead of thrown
+     */
+    private DeleteResult deleteBatch(String bucketName, List<String> keys) {
+        DeleteObjectsRequest request = new DeleteObjectsRequest(bucketName)
+                .withKeys(keys.toArray(new String[0]))
+                .withQuiet(true);
+        Map<String, String> failures = new LinkedHashMap<>();
+        try {
+            client.deleteObjects(request);
+        } catch (MultiObjectDeleteException e) {
+            for (MultiObjectDeleteException.DeleteError error : e.getErrors()) {
+                failures.put(error.getKey(), error.getCode() + ": " + error.getMessage());
+            }
+        } catch (Exception e) {
+            for (String key : keys) {
+                failures.put(key, e.getMessage());
+            }
+        }
+        return new DeleteResult(keys.size() - failures.size(), failures);
+    }
+    
+    @Override
+    public void copyObject(String bucketName, String sourceKey, String destinationKey) throws StorageException {
+        validateCopy(bucketName, sourceKey, destinationKey);
+        
+        try {
+            ObjectMetadata metadata = client.getObjectMetadata(bucketName.trim(), sourceKey);
+            copy(bucketName.trim(), sourceKey, destinationKey, metadata.getContentLength(), metadata);
+        } catch (Exception e) {
+            throw new StorageException("Failed to copy " + sourceKey + " to " + destinationKey, e);
         }
+    }
+    
+    @Override
+    public void copyObject(String bucketName, String sourceKey, String destinationKey, long size) throws StorageException {
+        validateCopy(bucketName, sourceKey, destinationKey);
         
+        try {
+            copy(bucketName.trim(), sourceKey, destinationKey, size, null);
+        } catch (Exception e) {
+            throw new StorageException("Failed to copy " + sourceKey + " to " + destinationKey, e);
+        }
+    }
+    
+    @Override
+    public void moveObject(String bucketName, String sourceKey, String destinationKey) throws StorageException {
+        copyObject(bucketName, sourceKey, destinationKey);
+        try {
+            client.deleteObject(bucketName.trim(), sourceKey);
+        } catch (Exception e) {
+            throw new StorageException("Copied " + sourceKey + " to " + destinationKey
+                    + " but failed to delete the original", e);
+        }
+    }
+    
+    /**
+     * Copies one object; large objects are copied as parallel part ranges
+     * @param metadata the source's metadata if already known, otherwise null
+     */
+    private void copy(String bucketName, String sourceKey, String destinationKey, long size,
+                      ObjectMetadata metadata) throws Exception {
+        if (size >= COPY_MULTIPART_THRESHOLD) {
+            ObjectMetadata source = metadata != null ? metadata : client.getObjectMetadata(bucketName, sourceKey);
+            new MultipartCopier(client, requestExecutor).copy(bucketName, sourceKey, destinationKey, source);
+            return;
+        }
+        // Up to 1 GB is copied by one request, longer than the profile's whole-request timeout allows
+        client.copyObject(new CopyObjectRequest(bucketName, sourceKey, bucketName, destinationKey)
+                .withSdkRequestTimeout(0));
+    }
+    
+    private static void validateCopy(String bucketName, String source, String destination) {
+        if (bucketName == null || bucketName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Bucket name cannot be null or empty");
+        }
+        if (source == null || source.isEmpty() || destination == null || destination.isEmpty()) {
+            throw new IllegalArgumentException("Source and destination cannot be null or empty");
+        }
+        if (source.equals(destination)) {
+            throw new IllegalArgumentException("Source and destination must differ");
+        }
+    }
+    
+    @Override
+    public List<FileItem> searchObjectsRecursively(String bucketName, String searchTerm) throws StorageException {
         List<FileItem> matchingItems = new ArrayList<>();
-        String lowerSearchTerm = searchTerm.toLowerCase().trim();
+        searchObjectsRecursively(bucketName, searchTerm, (matches, scannedCount) -> {
+            matchingItems.addAll(matches);
+            return true;
+        });
+        return matchingItems;
+    }
+    
+    @Override
+    public void searchObjectsRecursively(String bucketName, String searchTerm, SearchResultListener listener) throws StorageException {
+        if (bucketName == null || bucketName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Bucket name cannot be null or empty");
+        }
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        
+        SearchPattern pattern = SearchPattern.compile(searchTerm);
         
         try {
-            // List all objects in the bucket recursively (without delimiter)
-            ListObjectsV2Request request = new ListObjectsV2Request()
-                    .withBucketName(bucketName.trim());
-            
-            ListObjectsV2Result result;
-            do {
-                result = client.listObjectsV2(request);
-                
-                for (S3ObjectSummary objectSummary : result.getObjectSummaries()) {
-                    String key = objectSummary.getKey();
-                    String fileName = key.substring(key.lastIndexOf('/') + 1);
-                    
-                    // Check if the key or filename contains the search term (case-insensitive)
-                    if (key.toLowerCase().contains(lowerSearchTerm) || 
-                        fileName.toLowerCase().contains(lowerSearchTerm)) {
-                        
-                        matchingItems.add(new FileItem(key, FileItem.ItemType.FILE, 
-                            objectSummary.getSize(), objectSummary.getLastModified()));
+            // Only the subtree under the literal start of a glob or regex can match
+            listObjectsRecursively(bucketName, pattern.getListingPrefix(), page -> {
+                List<FileItem> matches = new ArrayList<>();
+                for (FileItem item : page) {
+                    if (pattern.matches(item.getName())) {
+                        matches.add(item);
                     }
                 }
-                
-                // Set continuation token for pagination
-                request.setContinuationToken(result.getNextContinuationToken());
-                
-            } while (result.isTruncated());
-            
-            return matchingItems;
-            
-        } catch (Exception e) {
-            throw new StorageException("Failed to search objects in bucket: " + bucketName, e);
+                return listener.onResults(matches, page.size());
+            });
+        } catch (StorageException e) {
+            throw new StorageException("Failed to search objects in bucket: " + bucketName, e.getCause());
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,17 @@
+package com.ibm.cos.client.service;
+
+import com.ibm.cos.client.model.FileItem;
+import java.util.List;
+
+/**
+ * Receives the pages of a listing as they arrive from the storage service
+ */
+public interface ListingPageListener {
+    
+    /**
+     * Called once for every page returned by the service
+     * @param items the items contained in this page
+     * @return true to keep listing, false to stop after this page
+     */
+    boolean onPage(List<FileItem> items);
+}
@@ -0,0 +1,87 @@
+package com.ibm.cos.client.service;
+
+import com.ibm.cos.client.util.DaemonThreadFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lists folders the user is likely to open next on low-priority background threads,
+ * so the results are already in the listing cache when they are needed.
+ * Each new request cancels the prefetches still pending from the previous one.
+ */
+public class ListingPrefetcher {
+    public static final int DEFAULT_MAX_FOLDERS = 8;
+    private static final int PREFETCH_THREADS = 2;
+
+    private final CachingCloudStorageService cache;
+    private final int maxFolders;
+    private final ExecutorService executor;
+    private final AtomicLong generation = new AtomicLong(0);
+    private final List<Future<?>> pending = new ArrayList<>();
+
+    public ListingPrefetcher(CachingCloudStorageService cache) {
+        this(cache, DEFAULT_MAX_FOLDERS);
+    }
+
+    public ListingPrefetcher(CachingCloudStorageService cache, int maxFolders) {
+        if (cache == null) {
+            throw new IllegalArgumentException("Cache cannot be null");
+        }
+        if (maxFolders <= 0) {
+            throw new IllegalArgumentException("Max folders must be positive");
+        }
+        
+        this.cache = cache;
+        this.maxFolders = maxFolders;
+        this.executor = Executors.newFixedThreadPool(PREFETCH_THREADS,
+                new DaemonThreadFactory("listing-prefetch", Thread.MIN_PRIORITY));
+    }
+
+    /**
+     * Replaces any pending prefetch with listings of the given folders
+     * @param bucketName the bucket name
+     * @param folderPrefixes full prefixes of the folders, in the order they should be fetched
+     */
+    public synchronized void prefetch(String bucketName, List<String> folderPrefixes) {
+        cancel();
+        long token = generation.get();
+        
+        int count = 0;
+        for (String prefix : folderPrefixes) {
+            if (count++ >= maxFolders) {
+                break;
+            }
+            if (cache.isCached(bucketName, prefix)) {
+                continue;
+            }
+            pending.add(executor.submit(() -> {
+                try {
+                    // Abandoning the listing mid-way keeps a partial result out of the cache
+                    cache.listObjects(bucketName, prefix, page -> generation.get() == token);
+                } catch (StorageException e) {
+                    // Prefetching is best effort; the real navigation reports errors
+                }
+            }));
+        }
+    }
+
+    /**
+     * Stops all pending and running prefetches
+     */
+    public synchronized void cancel() {
+        generation.incrementAndGet();
+        for (Future<?> future : pending) {
+            future.cancel(false);
+        }
+        pending.clear();
+    }
+
+    public int getMaxFolders() {
+        return maxFolders;
+    }
+}
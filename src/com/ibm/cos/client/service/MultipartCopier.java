@@ -0,0 +1,115 @@
+package com.ibm.cos.client.service;
+
+import com.ibm.cloud.objectstorage.services.s3.AmazonS3;
+import com.ibm.cloud.objectstorage.services.s3.model.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Copies a large object on the server as a multipart upload whose parts are
+ * byte ranges of the source, copied in parallel. No object data passes through
+ * the client; each part is a single request. Every part is conditional on the
+ * source's ETag, so a source overwritten mid-copy fails the copy instead of
+ * splicing two versions together.
+ */
+class MultipartCopier {
+    /** Parts are copied server-side, so they can be far larger than upload parts */
+    static final long COPY_PART_SIZE = 512L * 1024 * 1024;
+    private static final int MAX_PARTS = 10000;
+
+    private final AmazonS3 client;
+    private final ExecutorService partExecutor;
+
+    MultipartCopier(AmazonS3 client, ExecutorService partExecutor) {
+        this.client = client;
+        this.partExecutor = partExecutor;
+    }
+
+    /**
+     * @param source the metadata of the source object, copied to the new object
+     */
+    void copy(String bucketName, String sourceKey, String destinationKey, ObjectMetadata source) throws Exception {
+        long size = source.getContentLength();
+        long partSize = Math.max(COPY_PART_SIZE, (size + MAX_PARTS - 1) / MAX_PARTS);
+        int partCount = (int) Math.max(1, (size + partSize - 1) / partSize);
+
+        // A multipart upload does not inherit the source's headers the way a single copy does
+        ObjectMetadata metadata = new ObjectMetadata();
+        if (source.getContentType() != null) {
+            metadata.setContentType(source.getContentType());
+        }
+        if (source.getContentEncoding() != null) {
+            metadata.setContentEncoding(source.getContentEncoding());
+        }
+        if (source.getContentDisposition() != null) {
+            metadata.setContentDisposition(source.getContentDisposition());
+        }
+        if (source.getCacheControl() != null) {
+            metadata.setCacheControl(source.getCacheControl());
+        }
+        metadata.setUserMetadata(source.getUserMetadata());
+
+        String uploadId = client.initiateMultipartUpload(
+                new InitiateMultipartUploadRequest(bucketName, destinationKey, metadata)).getUploadId();
+        List<Future<PartETag>> parts = new ArrayList<>();
+        try {
+            for (int partNumber = 1; partNumber <= partCount; partNumber++) {
+                long firstByte = (partNumber - 1) * partSize;
+                long lastByte = Math.min(firstByte + partSize, size) - 1;
+                CopyPartRequest request = new CopyPartRequest()
+                        .withSourceBucketName(bucketName)
+                        .withSourceKey(sourceKey)
+                        .withDestinationBucketName(bucketName)
+                        .withDestinationKey(destinationKey)
+                        .withUploadId(uploadId)
+                        .withPartNumber(partNumber)
+                        .withFirstByte(firstByte)
+                        .withLastByte(lastByte)
+                        .withMatchingETagConstraint(source.getETag())
+                        // A part can take longer than the profile's whole-request timeout; the socket timeout still applies
+                        .withSdkRequestTimeout(0);
+                int number = partNumber;
+                parts.add(partExecutor.submit(() -> {
+                    // The client reports a failed precondition (412) as a null result
+                    CopyPartResult result = client.copyPart(request);
+                    if (result == null) {
+                        throw new IllegalStateException(sourceKey + " changed while copying part " + number);
+                    }
+                    return result.getPartETag();
+                }));
+            }
+
+            List<PartETag> partETags = new ArrayList<>();
+            for (Future<PartETag> part : parts) {
+                partETags.add(part.get());
+            }
+            client.completeMultipartUpload(
+                    new CompleteMultipartUploadRequest(bucketName, destinationKey, uploadId, partETags));
+        } catch (Exception e) {
+            for (Future<PartETag> part : parts) {
+                part.cancel(true);
+            }
+            abortQuietly(bucketName, destinationKey, uploadId);
+            throw unwrap(e);
+        }
+    }
+
+    private void abortQuietly(String bucketName, String key, String uploadId) {
+        try {
+            client.abortMultipartUpload(new AbortMultipartUploadRequest(bucketName, key, uploadId));
+        } catch (Exception e) {
+            // The copy is already failing; orphaned parts can still be cleaned up server-side
+        }
+    }
+
+    private static Exception unwrap(Exception e) {
+        if (e instanceof ExecutionException && e.getCause() instanceof Exception) {
+            return (Exception) e.getCause();
+        }
+        return e;
+    }
+}
@@ -0,0 +1,182 @@
+package com.ibm.cos.client.service;
+
+import com.ibm.cloud.objectstorage.services.s3.AmazonS3;
+import com.ibm.cloud.objectstorage.services.s3.model.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Uploads a file as a multipart upload, sending its parts in parallel.
+ * Each part is read from the file with a positional read when its turn comes,
+ * so memory use is bounded by the part pool size times the part size.
+ */
+class MultipartUploader {
+    private static final int MAX_PARTS = 10000;
+
+    private final AmazonS3 client;
+    private final ExecutorService partExecutor;
+    private final long partSize;
+
+    MultipartUploader(AmazonS3 client, ExecutorService partExecutor, long partSize) {
+        this.client = client;
+        this.partExecutor = partExecutor;
+        this.partSize = partSize;
+    }
+
+    /**
+     * @return the ETag of the completed object
+     */
+    String upload(String bucketName, String key, File file, TransferProgressListener progressListener) throws Exception {
+        long effectivePartSize = partSizeFor(file.length());
+        String uploadId = initiate(bucketName, key, effectivePartSize, progressListener);
+        return transfer(bucketName, key, file, uploadId, effectivePartSize, Collections.emptyMap(), progressListener);
+    }
+
+    /**
+     * Continues an earlier multipart upload, sending only the parts the server does not have yet.
+     * Starts over with a new upload if the old one no longer exists.
+     * @return the ETag of the completed object
+     */
+    String resume(String bucketName, String key, File file, String uploadId, long previousPartSize,
+                TransferProgressListener progressListener) throws Exception {
+        Map<Integer, PartSummary> storedParts;
+        try {
+            storedParts = listParts(bucketName, key, uploadId);
+        } catch (AmazonS3Exception e) {
+            if (!"NoSuchUpload".equals(e.getErrorCode())) {
+                throw e;
+            }
+            return upload(bucketName, key, file, progressListener);
+        }
+        return transfer(bucketName, key, file, uploadId, previousPartSize, storedParts, progressListener);
+    }
+
+    private String initiate(String bucketName, String key, long effectivePartSize,
+                            TransferProgressListener progressListener) {
+        String uploadId = client.initiateMultipartUpload(
+                new InitiateMultipartUploadRequest(bucketName, key)).getUploadId();
+        if (progressListener instanceof ResumableUploadListener) {
+            ((ResumableUploadListener) progressListener).onUploadStarted(uploadId, effectivePartSize);
+        }
+        return uploadId;
+    }
+
+    private String transfer(String bucketName, String key, File file, String uploadId, long effectivePartSize,
+                          Map<Integer, PartSummary> storedParts,
+                          TransferProgressListener progressListener) throws Exception {
+        List<Future<PartETag>> parts = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            int partCount = (int) Math.max(1, (fileSize + effectivePartSize - 1) / effectivePartSize);
+
+            for (int partNumber = 1; partNumber <= partCount; partNumber++) {
+                long position = (partNumber - 1) * effectivePartSize;
+                long length = Math.min(effectivePartSize, fileSize - position);
+                int number = partNumber;
+
+                PartSummary stored = storedParts.get(partNumber);
+                if (stored != null && stored.getSize() == length) {
+                    if (progressListener != null) {
+                        progressListener.onBytesTransferred(length);
+                    }
+                    parts.add(CompletableFuture.completedFuture(new PartETag(partNumber, stored.getETag())));
+                    continue;
+                }
+                parts.add(partExecutor.submit(() -> uploadPart(bucketName, key, uploadId, channel,
+                        number, position, (int) length, progressListener)));
+            }
+
+            List<PartETag> partETags = new ArrayList<>();
+            for (Future<PartETag> part : parts) {
+                partETags.add(part.get());
+            }
+            return client.completeMultipartUpload(
+                    new CompleteMultipartUploadRequest(bucketName, key, uploadId, partETags)).getETag();
+        } catch (Exception e) {
+            for (Future<PartETag> part : parts) {
+                part.cancel(true);
+            }
+            // Resumable callers keep their journal, so the stored parts must survive
+            if (!(progressListener instanceof ResumableUploadListener)) {
+                abortQuietly(bucketName, key, uploadId);
+            }
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Grows the configured part size when the file would otherwise need more parts than allowed
+     */
+    private long partSizeFor(long fileSize) {
+        long minimum = (fileSize + MAX_PARTS - 1) / MAX_PARTS;
+        return Math.max(partSize, minimum);
+    }
+
+    private Map<Integer, PartSummary> listParts(String bucketName, String key, String uploadId) {
+        Map<Integer, PartSummary> parts = new HashMap<>();
+        ListPartsRequest request = new ListPartsRequest(bucketName, key, uploadId);
+        PartListing listing;
+        do {
+            listing = client.listParts(request);
+            for (PartSummary part : listing.getParts()) {
+                parts.put(part.getPartNumber(), part);
+            }
+            request.setPartNumberMarker(listing.getNextPartNumberMarker());
+        } while (listing.isTruncated());
+        return parts;
+    }
+
+    private PartETag uploadPart(String bucketName, String key, String uploadId, FileChannel channel,
+                                int partNumber, long position, int length,
+                                TransferProgressListener progressListener) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new EOFException("File shrank while uploading part " + partNumber);
+            }
+        }
+
+        UploadPartRequest request = new UploadPartRequest()
+                .withBucketName(bucketName)
+                .withKey(key)
+                .withUploadId(uploadId)
+                .withPartNumber(partNumber)
+                .withPartSize(length)
+                .withInputStream(new ByteArrayInputStream(buffer.array(), 0, length));
+        if (progressListener != null) {
+            request.setGeneralProgressListener(new SdkProgressAdapter(progressListener));
+        }
+        PartETag partETag = client.uploadPart(request).getPartETag();
+        if (progressListener instanceof ResumableUploadListener) {
+            ((ResumableUploadListener) progressListener).onPartUploaded(partNumber, partETag.getETag());
+        }
+        return partETag;
+    }
+
+    private void abortQuietly(String bucketName, String key, String uploadId) {
+        try {
+            client.abortMultipartUpload(new AbortMultipartUploadRequest(bucketName, key, uploadId));
+        } catch (Exception e) {
+            // The upload is already failing; orphaned parts can still be cleaned up server-side
+        }
+    }
+
+    private static Exception unwrap(Exception e) {
+        if (e instanceof ExecutionException && e.getCause() instanceof Exception) {
+            return (Exception) e.getCause();
+        }
+        return e;
+    }
+}
@@ -0,0 +1,119 @@
+package com.ibm.cos.client.service;
+
+import com.ibm.cloud.objectstorage.services.s3.AmazonS3;
+import com.ibm.cloud.objectstorage.services.s3.model.ListObjectsV2Request;
+import com.ibm.cloud.objectstorage.services.s3.model.ListObjectsV2Result;
+import com.ibm.cloud.objectstorage.services.s3.model.S3ObjectSummary;
+import com.ibm.cos.client.model.FileItem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Lists every key under a prefix with many continuation-token chains at once.
+ * <p>
+ * The prefix is first listed with a "/" delimiter: the objects directly under it
+ * are reported and each common prefix becomes a shard listed by its own task, so
+ * the work fans out along the folder structure. Below a fixed depth a shard is
+ * listed flat. Tasks run on a work-stealing pool, so an idle thread picks up
+ * shards queued by a busy one.
+ * <p>
+ * Pages reach the listener one at a time, in no particular order.
+ */
+class ParallelLister {
+    /** Folder levels split into separate shards before listing flat */
+    private static final int MAX_SHARD_DEPTH = 3;
+
+    private final AmazonS3 client;
+    private final ForkJoinPool pool;
+
+    ParallelLister(AmazonS3 client, ForkJoinPool pool) {
+        this.client = client;
+        this.pool = pool;
+    }
+
+    /**
+     * Lists the prefix, returning once every shard has finished or the listener asked to stop
+     */
+    void list(String bucketName, String prefix, ListingPageListener listener) {
+        AtomicBoolean stopped = new AtomicBoolean(false);
+        ListingPageListener serialized = page -> {
+            synchronized (listener) {
+                if (stopped.get() || !listener.onPage(page)) {
+                    stopped.set(true);
+                    return false;
+                }
+                return true;
+            }
+        };
+        pool.invoke(new ShardTask(bucketName, prefix != null ? prefix : "", 0, serialized, stopped));
+    }
+
+    private class ShardTask extends RecursiveAction {
+        private final String bucketName;
+        private final String prefix;
+        private final int depth;
+        private final ListingPageListener listener;
+        private final AtomicBoolean stopped;
+
+        ShardTask(String bucketName, String prefix, int depth, ListingPageListener listener, AtomicBoolean stopped) {
+            this.bucketName = bucketName;
+            this.prefix = prefix;
+            this.depth = depth;
+            this.listener = listener;
+            this.stopped = stopped;
+        }
+
+        @Override
+        protected void compute() {
+            boolean split = depth < MAX_SHARD_DEPTH;
+            ListObjectsV2Request request = new ListObjectsV2Request().withBucketName(bucketName);
+            if (!prefix.isEmpty()) {
+                request.withPrefix(prefix);
+            }
+            if (split) {
+                request.withDelimiter("/");
+            }
+
+            List<ShardTask> shards = new ArrayList<>();
+            try {
+                ListObjectsV2Result result;
+                do {
+                    if (stopped.get()) {
+                        break;
+                    }
+                    result = client.listObjectsV2(request);
+
+                    // Start the sub-prefixes of this page before reporting it, so they list meanwhile
+                    for (String commonPrefix : result.getCommonPrefixes()) {
+                        ShardTask shard = new ShardTask(bucketName, commonPrefix, depth + 1, listener, stopped);
+                        shard.fork();
+                        shards.add(shard);
+                    }
+
+                    List<FileItem> items = new ArrayList<>(result.getObjectSummaries().size());
+                    for (S3ObjectSummary objectSummary : result.getObjectSummaries()) {
+                        items.add(new FileItem(objectSummary.getKey(), FileItem.ItemType.FILE,
+                            objectSummary.getSize(), objectSummary.getLastModified(), objectSummary.getETag()));
+                    }
+                    if (!items.isEmpty() && !listener.onPage(items)) {
+                        break;
+                    }
+
+                    request.setContinuationToken(result.getNextContinuationToken());
+                } while (result.isTruncated());
+            } catch (RuntimeException e) {
+                // One failed shard fails the listing; let the others wind down
+                stopped.set(true);
+                throw e;
+            } finally {
+                for (ShardTask shard : shards) {
+                    shard.join();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.ibm.cos.client.service;
+
+import com.ibm.cloud.objectstorage.services.s3.AmazonS3;
+import com.ibm.cloud.objectstorage.services.s3.model.AmazonS3Exception;
+import com.ibm.cloud.objectstorage.services.s3.model.GetObjectRequest;
+import com.ibm.cloud.objectstorage.services.s3.model.ObjectMetadata;
+import com.ibm.cloud.objectstorage.services.s3.model.S3Object;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Downloads an object as byte ranges fetched in parallel and written at their
+ * offsets into a preallocated file. The first range doubles as the size probe,
+ * so objects smaller than one range cost a single request.
+ * <p>
+ * Bytes land in a ".part" file next to the target, with a sidecar recording the
+ * ETag and the ranges already written. A later attempt requests only the missing
+ * ranges, conditional on the ETag, and the finished file is renamed into place.
+ */
+class RangedDownloader {
+    static final String PART_SUFFIX = ".part";
+    static final String MARKER_SUFFIX = ".part.meta";
+    private static final int RANGE_NOT_SATISFIABLE = 416;
+
+    private final AmazonS3 client;
+    private final ExecutorService partExecutor;
+    private final long rangeSize;
+    private final BufferPool bufferPool;
+
+    RangedDownloader(AmazonS3 client, ExecutorService partExecutor, long rangeSize, BufferPool bufferPool) {
+        this.client = client;
+        this.partExecutor = partExecutor;
+        this.rangeSize = rangeSize;
+        this.bufferPool = bufferPool;
+    }
+
+    void download(String bucketName, String key, File targetFile,
+                  TransferProgressListener progressListener) throws Exception {
+        File partFile = new File(targetFile.getPath() + PART_SUFFIX);
+        File markerFile = new File(targetFile.getPath() + MARKER_SUFFIX);
+
+        DownloadMarker marker = DownloadMarker.load(markerFile);
+        boolean resumed = false;
+        if (marker != null && partFile.length() == marker.getObjectSize()) {
+            try {
+                resume(bucketName, key, partFile, marker, progressListener);
+                resumed = true;
+            } catch (ObjectChangedException e) {
+                // The object was replaced since the partial download; start over
+            }
+        }
+        if (!resumed) {
+            marker = downloadFresh(bucketName, key, partFile, markerFile, progressListener);
+        }
+
+        moveIntoPlace(partFile, targetFile);
+        marker.delete();
+    }
+
+    private DownloadMarker downloadFresh(String bucketName, String key, File partFile, File markerFile,
+                                         TransferProgressListener progressListener) throws Exception {
+        S3Object first;
+        try {
+            first = client.getObject(new GetObjectRequest(bucketName, key).withRange(0, rangeSize - 1));
+        } catch (AmazonS3Exception e) {
+            if (e.getStatusCode() != RANGE_NOT_SATISFIABLE) {
+                throw e;
+            }
+            // Empty objects have no satisfiable range
+            first = client.getObject(new GetObjectRequest(bucketName, key));
+        }
+
+        List<Future<?>> ranges = new ArrayList<>();
+        try (InputStream firstContent = first.getObjectContent();
+             RandomAccessFile file = new RandomAccessFile(partFile, "rw")) {
+            ObjectMetadata metadata = first.getObjectMetadata();
+            long objectSize = objectSize(metadata);
+            // A server that ignores the Range header sends the whole object in the first response
+            long effectiveRangeSize = metadata.getRawMetadataValue("Content-Range") != null
+                    ? rangeSize : Math.max(1, objectSize);
+            DownloadMarker marker = DownloadMarker.create(markerFile, metadata.getETag(), objectSize, effectiveRangeSize);
+            file.setLength(objectSize);
+            FileChannel channel = file.getChannel();
+
+            for (long start = effectiveRangeSize; start < objectSize; start += effectiveRangeSize) {
+                ranges.add(submitRange(bucketName, key, marker, start, channel, progressListener));
+            }
+
+            write(firstContent, channel, 0, progressListener);
+            marker.markCompleted(0);
+            awaitAll(ranges);
+            channel.force(false);
+            return marker;
+        } catch (Exception e) {
+            cancelAll(ranges);
+            throw unwrap(e);
+        }
+    }
+
+    private void resume(String bucketName, String key, File partFile, DownloadMarker marker,
+                        TransferProgressListener progressListener) throws Exception {
+        List<Future<?>> ranges = new ArrayList<>();
+        try (RandomAccessFile file = new RandomAccessFile(partFile, "rw")) {
+            FileChannel channel = file.getChannel();
+            long objectSize = marker.getObjectSize();
+            long effectiveRangeSize = marker.getRangeSize();
+
+            for (long start = 0; start < objectSize; start += effectiveRangeSize) {
+                if (marker.isCompleted(start)) {
+                    if (progressListener != null) {
+                        progressListener.onBytesTransferred(Math.min(effectiveRangeSize, objectSize - start));
+                    }
+                } else {
+                    ranges.add(submitRange(bucketName, key, marker, start, channel, progressListener));
+                }
+            }
+            awaitAll(ranges);
+            channel.force(false);
+        } catch (Exception e) {
+            cancelAll(ranges);
+            throw unwrap(e);
+        }
+    }
+
+    private Future<?> submitRange(String bucketName, String key, DownloadMarker marker, long start,
+                                  FileChannel channel, TransferProgressListener progressListener) {
+        long end = Math.min(start + marker.getRangeSize(), marker.getObjectSize()) - 1;
+        return partExecutor.submit(() -> {
+            downloadRange(bucketName, key, marker.getETag(), start, end, channel, progressListener);
+            marker.markCompleted(start);
+            return null;
+        });
+    }
+
+    private void downloadRange(String bucketName, String key, String eTag, long start, long end,
+                               FileChannel channel, TransferProgressListener progressListener) throws IOException {
+        GetObjectRequest request = new GetObjectRequest(bucketName, key).withRange(start, end);
+        if (eTag != null) {
+            request.withMatchingETagConstraint(eTag);
+        }
+        // The SDK returns null when the If-Match constraint is not met
+        S3Object object = client.getObject(request);
+        if (object == null) {
+            throw new ObjectChangedException(key);
+        }
+        try (InputStream content = object.getObjectContent()) {
+            write(content, channel, start, progressListener);
+        }
+    }
+
+    /**
+     * Streams the response body into the file at the given position. Reads go straight
+     * into a pooled array and fill it completely before it is written, so the file sees
+     * few, large writes and no buffer is allocated per range. This is not a zero-copy path:
+     * the JDK still copies every write from the array into a temporary native buffer.
+     */
+    private void write(InputStream content, FileChannel channel, long position,
+                       TransferProgressListener progressListener) throws IOException {
+        byte[] buffer = bufferPool.acquire();
+        try {
+            boolean endOfStream = false;
+            while (!endOfStream) {
+                int length = 0;
+                while (length < buffer.length) {
+                    int read = content.read(buffer, length, buffer.length - length);
+                    if (read < 0) {
+                        endOfStream = true;
+                        break;
+                    }
+                    length += read;
+                }
+                ByteBuffer data = ByteBuffer.wrap(buffer, 0, length);
+                while (data.hasRemaining()) {
+                    position += channel.write(data, position);
+                }
+                if (progressListener != null && length > 0) {
+                    progressListener.onBytesTransferred(length);
+                }
+            }
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    private static void moveIntoPlace(File partFile, File targetFile) throws IOException {
+        try {
+            Files.move(partFile.toPath(), targetFile.toPath(),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(partFile.toPath(), targetFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Reads the full object size from the Content-Range of a ranged response
+     */
+    private static long objectSize(ObjectMetadata metadata) {
+        Object contentRange = metadata.getRawMetadataValue("Content-Range");
+        if (contentRange != null) {
+            String value = contentRange.toString();
+            int slash = value.lastIndexOf('/');
+            if (slash >= 0 && !value.endsWith("*")) {
+                return Long.parseLong(value.substring(slash + 1).trim());
+            }
+        }
+        return metadata.getContentLength();
+    }
+
+    private static void awaitAll(List<Future<?>> ranges) throws Exception {
+        for (Future<?> range : ranges) {
+            range.get();
+        }
+    }
+
+    private static void cancelAll(List<Future<?>> ranges) {
+        for (Future<?> range : ranges) {
+            range.cancel(true);
+        }
+    }
+
+    private static Exception unwrap(Exception e) {
+        if (e instanceof ExecutionException && e.getCause() instanceof Exception) {
+            return (Exception) e.getCause();
+        }
+        return e;
+    }
+
+    /**
+     * Raised when the object no longer matches the ETag a download started with
+     */
+    private static class ObjectChangedException extends IOException {
+        ObjectChangedException(String key) {
+            super("Object " + key + " changed while it was being downloaded");
+        }
+    }
+}
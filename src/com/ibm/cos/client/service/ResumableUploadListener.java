@@ -0,0 +1,23 @@
+package com.ibm.cos.client.service;
+
+/**
+ * Progress listener for callers that record multipart uploads so they can be resumed later.
+ * When a multipart upload reports to this listener it is left in place on failure
+ * instead of being aborted.
+ */
+public interface ResumableUploadListener extends TransferProgressListener {
+    
+    /**
+     * Called when a multipart upload has been created on the server
+     * @param uploadId the id of the multipart upload
+     * @param partSize the size of every part but the last
+     */
+    void onUploadStarted(String uploadId, long partSize);
+    
+    /**
+     * Called each time a part has been stored on the server. May be invoked concurrently.
+     * @param partNumber the number of the stored part
+     * @param eTag the ETag returned for the part
+     */
+    void onPartUploaded(int partNumber, String eTag);
+}
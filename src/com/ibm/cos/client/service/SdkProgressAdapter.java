@@ -0,0 +1,24 @@
+package com.ibm.cos.client.service;
+
+import com.ibm.cloud.objectstorage.event.ProgressEvent;
+import com.ibm.cloud.objectstorage.event.ProgressEventType;
+import com.ibm.cloud.objectstorage.event.ProgressListener;
+
+/**
+ * Forwards the byte transfer events of an SDK request to a TransferProgressListener
+ */
+class SdkProgressAdapter implements ProgressListener {
+    private final TransferProgressListener listener;
+
+    SdkProgressAdapter(TransferProgressListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void progressChanged(ProgressEvent event) {
+        if (event.getEventType() == ProgressEventType.REQUEST_BYTE_TRANSFER_EVENT
+                || event.getEventType() == ProgressEventType.RESPONSE_BYTE_TRANSFER_EVENT) {
+            listener.onBytesTransferred(event.getBytesTransferred());
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.ibm.cos.client.service;
+
+import com.ibm.cos.client.model.FileItem;
+import java.util.List;
+
+/**
+ * Receives the matches of a search as the storage service finds them
+ */
+public interface SearchResultListener {
+    
+    /**
+     * Called after every page of keys has been checked
+     * @param matches the matching items of this page, possibly empty
+     * @param scannedCount the number of keys checked in this page
+     * @return true to keep searching, false to stop
+     */
+    boolean onResults(List<FileItem> matches, int scannedCount);
+}
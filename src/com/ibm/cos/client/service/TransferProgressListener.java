@@ -0,0 +1,14 @@
+package com.ibm.cos.client.service;
+
+/**
+ * Receives byte-level progress while an object is transferred
+ */
+public interface TransferProgressListener {
+    
+    /**
+     * Called whenever more bytes have been sent or received.
+     * May be invoked concurrently from several transfer threads.
+     * @param bytes the number of bytes transferred since the previous call
+     */
+    void onBytesTransferred(long bytes);
+}
@@ -0,0 +1,32 @@
+package com.ibm.cos.client.sync;
+
+/**
+ * Which side of a sync is brought up to date
+ */
+public enum SyncDirection {
+    /** The prefix is made to match the local folder */
+    UPLOAD("Upload"),
+    /** The local folder is made to match the prefix */
+    DOWNLOAD("Download"),
+    /** Changes on either side are copied to the other; when both changed, the newer copy wins */
+    BOTH("Both ways");
+
+    private final String label;
+
+    SyncDirection(String label) {
+        this.label = label;
+    }
+
+    public boolean allowsUpload() {
+        return this != DOWNLOAD;
+    }
+
+    public boolean allowsDownload() {
+        return this != UPLOAD;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,231 @@
+package com.ibm.cos.client.sync;
+
+import com.ibm.cos.client.model.FileItem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides, path by path, what a sync has to do.
+ * <p>
+ * A path is unchanged on a side when it still matches the sync state: the local
+ * size and modification time, and the object's ETag (or, when no ETag was recorded,
+ * its size and a modification time no later than the last sync). Only paths with no
+ * state and equal sizes are hashed, and only when the ETag is a plain MD5.
+ * Paths missing on one side are copied from the other; nothing is deleted.
+ */
+public class SyncPlanner {
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
+    public enum Action {
+        /** Both sides already match */
+        SKIP,
+        /** Both sides match, proven by the object's MD5, but the state did not know it yet */
+        RECORD,
+        UPLOAD,
+        DOWNLOAD
+    }
+
+    /**
+     * A file found in the local folder
+     */
+    public static class LocalFile {
+        private final Path path;
+        private final long size;
+        private final long modified;
+
+        LocalFile(Path path, long size, long modified) {
+            this.path = path;
+            this.size = size;
+            this.modified = modified;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getModified() {
+            return modified;
+        }
+    }
+
+    private final SyncDirection direction;
+    private final SyncState state;
+
+    public SyncPlanner(SyncDirection direction, SyncState state) {
+        if (direction == null) {
+            throw new IllegalArgumentException("Direction cannot be null");
+        }
+        if (state == null) {
+            throw new IllegalArgumentException("State cannot be null");
+        }
+        this.direction = direction;
+        this.state = state;
+    }
+
+    /**
+     * Lists the regular files below a folder by their relative path with "/" separators
+     * @param root the local folder
+     * @return the files, in a map safe to consume from the listing threads
+     * @throws IOException if the folder cannot be walked
+     */
+    public static Map<String, LocalFile> scan(Path root) throws IOException {
+        Map<String, LocalFile> files = new ConcurrentHashMap<>();
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                if (attributes.isRegularFile()) {
+                    files.put(relativePath(root, file), new LocalFile(file, attributes.size(),
+                            attributes.lastModifiedTime().toMillis()));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                // An unreadable entry is left out of the sync rather than failing it
+                e.printStackTrace();
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return files;
+    }
+
+    /**
+     * Decides what to do with one path
+     * @param path the path relative to the folder and prefix
+     * @param local the local file, or null if only the object exists
+     * @param remote the object, or null if only the local file exists
+     * @return the action; RECORD and SKIP transfer nothing
+     */
+    public Action decide(String path, LocalFile local, FileItem remote) {
+        if (local == null) {
+            return remote != null && direction.allowsDownload() ? Action.DOWNLOAD : Action.SKIP;
+        }
+        if (remote == null) {
+            return direction.allowsUpload() ? Action.UPLOAD : Action.SKIP;
+        }
+
+        SyncState.Entry entry = state.get(path);
+        boolean localChanged = entry == null || entry.getLocalSize() != local.size
+                || entry.getLocalModified() != local.modified;
+        boolean remoteChanged = entry == null || !matchesRemote(entry, remote);
+        if (!localChanged && !remoteChanged) {
+            if (entry.getETag() == null && remote.getETag() != null) {
+                // Learn the ETag an upload did not report, so later checks compare it
+                state.put(path, entry.withETag(normalizeETag(remote.getETag())));
+            }
+            return Action.SKIP;
+        }
+        if (entry == null && local.size == remote.getSize() && sameContent(local, remote)) {
+            return Action.RECORD;
+        }
+
+        if (direction == SyncDirection.UPLOAD) {
+            return Action.UPLOAD;
+        }
+        if (direction == SyncDirection.DOWNLOAD) {
+            return Action.DOWNLOAD;
+        }
+        if (localChanged != remoteChanged) {
+            return localChanged ? Action.UPLOAD : Action.DOWNLOAD;
+        }
+        // Both sides changed since the last sync: keep the newer copy
+        return local.modified > remote.getLastModifiedTime() ? Action.UPLOAD : Action.DOWNLOAD;
+    }
+
+    /**
+     * Records a path as in sync after a transfer or a RECORD decision
+     * @param path the relative path
+     * @param local the local file as it is now
+     * @param eTag the object's ETag, or null if not known
+     */
+    public void recordSynced(String path, LocalFile local, String eTag) {
+        state.put(path, new SyncState.Entry(local.size, local.modified, normalizeETag(eTag),
+                System.currentTimeMillis()));
+    }
+
+    /**
+     * Reads a local file's current size and modification time, as after a download
+     * @throws IOException if the file cannot be read
+     */
+    public static LocalFile stat(Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        return new LocalFile(file, attributes.size(), attributes.lastModifiedTime().toMillis());
+    }
+
+    private static boolean matchesRemote(SyncState.Entry entry, FileItem remote) {
+        String eTag = normalizeETag(remote.getETag());
+        if (entry.getETag() != null && eTag != null) {
+            return entry.getETag().equals(eTag);
+        }
+        return remote.getSize() == entry.getLocalSize() && remote.getLastModifiedTime() <= entry.getSyncedAt();
+    }
+
+    /**
+     * Compares contents without a state entry. A single-part upload's ETag is the MD5 of
+     * the object, so the local file is hashed. Other ETags prove nothing about the content,
+     * so the path is left to the direction and newer-wins rules.
+     */
+    private static boolean sameContent(LocalFile local, FileItem remote) {
+        String eTag = normalizeETag(remote.getETag());
+        if (eTag == null || eTag.length() != 32 || eTag.indexOf('-') >= 0) {
+            return false;
+        }
+        try {
+            return eTag.equalsIgnoreCase(md5(local.path));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static String md5(Path file) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            byte[] buffer = new byte[HASH_BUFFER_SIZE];
+            try (InputStream in = Files.newInputStream(file)) {
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 not available", e);
+        }
+    }
+
+    private static String normalizeETag(String eTag) {
+        if (eTag == null || eTag.isEmpty()) {
+            return null;
+        }
+        return eTag.startsWith("\"") && eTag.endsWith("\"") && eTag.length() > 1
+                ? eTag.substring(1, eTag.length() - 1) : eTag;
+    }
+
+    private static String relativePath(Path root, Path file) {
+        StringBuilder path = new StringBuilder();
+        for (Path part : root.relativize(file)) {
+            if (path.length() > 0) {
+                path.append('/');
+            }
+            path.append(part.toString());
+        }
+        return path.toString();
+    }
+}
@@ -0,0 +1,161 @@
+package com.ibm.cos.client.sync;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local record of what a folder and a prefix looked like when they were last in sync.
+ * <p>
+ * One file per folder and prefix pair holds a line per synced path with the local
+ * size and modification time and the object's ETag. A later sync compares against
+ * these instead of hashing files, so unchanged files cost nothing but a stat.
+ */
+public class SyncState {
+    private static final String SUFFIX = ".sync";
+    private static final String FORMAT = "sync-state 1";
+
+    private final File stateFile;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * What one path looked like after it was last synced
+     */
+    public static class Entry {
+        private final long localSize;
+        private final long localModified;
+        private final String eTag;
+        private final long syncedAt;
+
+        public Entry(long localSize, long localModified, String eTag, long syncedAt) {
+            this.localSize = localSize;
+            this.localModified = localModified;
+            this.eTag = eTag;
+            this.syncedAt = syncedAt;
+        }
+
+        public long getLocalSize() {
+            return localSize;
+        }
+
+        public long getLocalModified() {
+            return localModified;
+        }
+
+        /**
+         * @return the object's ETag, or null if it was not known
+         */
+        public String getETag() {
+            return eTag;
+        }
+
+        /**
+         * @return when the path was synced, in epoch milliseconds
+         */
+        public long getSyncedAt() {
+            return syncedAt;
+        }
+
+        /**
+         * @return a copy with the ETag filled in
+         */
+        public Entry withETag(String eTag) {
+            return new Entry(localSize, localModified, eTag, syncedAt);
+        }
+    }
+
+    private SyncState(File stateFile) {
+        this.stateFile = stateFile;
+    }
+
+    /**
+     * Loads the state of a folder and prefix pair; a missing or unreadable file gives an empty state
+     * @param directory where state files are kept
+     * @param localRoot the local folder
+     * @param bucket the bucket
+     * @param prefix the prefix the folder is synced with
+     * @return the state
+     */
+    public static SyncState load(File directory, File localRoot, String bucket, String prefix) {
+        SyncState state = new SyncState(new File(directory, stateId(localRoot, bucket, prefix) + SUFFIX));
+        if (!state.stateFile.isFile()) {
+            return state;
+        }
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(state.stateFile), StandardCharsets.UTF_8))) {
+            if (!FORMAT.equals(reader.readLine())) {
+                return state;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // The path comes last so it may contain tabs
+                String[] fields = line.split("\t", 5);
+                if (fields.length == 5) {
+                    state.entries.put(fields[4], new Entry(Long.parseLong(fields[0]), Long.parseLong(fields[1]),
+                            fields[2].isEmpty() ? null : fields[2], Long.parseLong(fields[3])));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // A damaged state only means files are compared from scratch
+            e.printStackTrace();
+            state.entries.clear();
+        }
+        return state;
+    }
+
+    public Entry get(String path) {
+        return entries.get(path);
+    }
+
+    public void put(String path, Entry entry) {
+        // Paths with line breaks cannot be stored and are simply compared from scratch each time
+        if (path.indexOf('\n') < 0 && path.indexOf('\r') < 0) {
+            entries.put(path, entry);
+        }
+    }
+
+    public void remove(String path) {
+        entries.remove(path);
+    }
+
+    /**
+     * Writes the state, replacing the previous file only once the new one is complete
+     * @throws IOException if the file cannot be written
+     */
+    public void save() throws IOException {
+        File temp = new File(stateFile.getPath() + ".tmp");
+        try (Writer writer = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(temp), StandardCharsets.UTF_8))) {
+            writer.write(FORMAT);
+            writer.write('\n');
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                Entry value = entry.getValue();
+                writer.write(value.localSize + "\t" + value.localModified + "\t"
+                        + (value.eTag != null ? value.eTag : "") + "\t" + value.syncedAt + "\t" + entry.getKey());
+                writer.write('\n');
+            }
+        }
+        Files.move(temp.toPath(), stateFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static String stateId(File localRoot, String bucket, String prefix) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] hash = digest.digest((localRoot.getAbsolutePath() + "\n" + bucket + "\n" + prefix)
+                    .getBytes(StandardCharsets.UTF_8));
+            StringBuilder id = new StringBuilder();
+            for (byte b : hash) {
+                id.append(String.format("%02x", b));
+            }
+            return id.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 not available", e);
+        }
+    }
+}
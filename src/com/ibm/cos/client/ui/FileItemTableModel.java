@@ -0,0 +1,132 @@
+package com.ibm.cos.client.ui;
+
+import com.ibm.cos.client.model.FileItem;
+import com.ibm.cos.client.model.FileListing;
+import com.ibm.cos.client.util.FileUtils;
+
+import javax.swing.table.AbstractTableModel;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Table model that reads its rows straight from a columnar file listing.
+ * Nothing is formatted up front: sizes and dates are turned into text only for
+ * the cells the table asks for, which are the ones being painted. Rows are
+ * added a page at a time with one insert event per page.
+ * Must only be used on the event dispatch thread.
+ */
+public abstract class FileItemTableModel extends AbstractTableModel {
+    private final String[] columnNames;
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+    protected FileListing listing = new FileListing("");
+    /** Listing indices in display order, or null to show the listing as it is */
+    private int[] view;
+
+    protected FileItemTableModel(String... columnNames) {
+        this.columnNames = columnNames;
+    }
+
+    /**
+     * Appends a page of items, named relative to the listing prefix
+     * @param page the items to add
+     */
+    public void addItems(List<FileItem> page) {
+        if (page.isEmpty()) {
+            return;
+        }
+        int firstRow = getRowCount();
+        listing.addAll(page);
+        // A sorted or filtered view shows new items once it is computed again
+        if (view == null) {
+            fireTableRowsInserted(firstRow, getRowCount() - 1);
+        }
+    }
+
+    /**
+     * Replaces the display order in one step
+     * @param forListing the listing the view was computed from
+     * @param forSize the size of the listing when the view was computed
+     * @param view listing indices in display order, or null for the listing order
+     * @return false if the listing was replaced or grew meanwhile, so the view is stale
+     */
+    public boolean setView(FileListing forListing, int forSize, int[] view) {
+        if (forListing != listing || forSize != listing.size()) {
+            return false;
+        }
+        this.view = view;
+        fireTableDataChanged();
+        return true;
+    }
+
+    /**
+     * Removes every row
+     */
+    public void clear() {
+        listing = new FileListing(listing.getPrefix());
+        view = null;
+        fireTableDataChanged();
+    }
+
+    /**
+     * @param row the model row
+     * @return the item shown in that row
+     */
+    public FileItem getItem(int row) {
+        return listing.getItem(toListingIndex(row));
+    }
+
+    /**
+     * @param row a model row after the leading rows
+     * @return the index of the row's item in the listing
+     */
+    protected int toListingIndex(int row) {
+        int position = row - getLeadingRowCount();
+        return view != null ? view[position] : position;
+    }
+
+    /**
+     * Drops the display order, for when the listing is replaced
+     */
+    protected void resetView() {
+        view = null;
+    }
+
+    /**
+     * @return the listing behind the rows
+     */
+    public FileListing getListing() {
+        return listing;
+    }
+
+    /**
+     * @return the number of rows shown before the listing's items
+     */
+    protected int getLeadingRowCount() {
+        return 0;
+    }
+
+    @Override
+    public int getRowCount() {
+        return getLeadingRowCount() + (view != null ? view.length : listing.size());
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    protected String formatSize(int index) {
+        return listing.isFolder(index) ? "" : FileUtils.formatSize(listing.getSize(index));
+    }
+
+    protected String formatDate(int index) {
+        long modified = listing.getLastModified(index);
+        return modified != FileItem.UNKNOWN_TIME ? dateFormat.format(new Date(modified)) : "";
+    }
+}
@@ -0,0 +1,74 @@
+package com.ibm.cos.client.ui;
+
+import com.ibm.cos.client.model.FileItem;
+import com.ibm.cos.client.model.FileListing;
+
+import java.util.List;
+
+/**
+ * Model of the folder listing: name, type, size and date of each item,
+ * optionally preceded by a row that leads to the parent folder
+ */
+public class FileTableModel extends FileItemTableModel {
+    public static final String PARENT_FOLDER = ".. (parent)";
+    public static final String FOLDER_TYPE = "Folder";
+    public static final String FILE_TYPE = "File";
+
+    private static final FileItem PARENT_ITEM = new FileItem(PARENT_FOLDER, FileItem.ItemType.FOLDER, 0, null);
+
+    private boolean parentRow;
+
+    public FileTableModel() {
+        super("Name", "Type", "Size", "Last Modified");
+    }
+
+    /**
+     * Replaces the rows with a new listing
+     * @param prefix the listed folder
+     * @param page the first page of the listing, named relative to the folder
+     * @param withParentRow true to start with a row leading to the parent folder
+     */
+    public void setItems(String prefix, List<FileItem> page, boolean withParentRow) {
+        listing = new FileListing(prefix);
+        listing.addAll(page);
+        resetView();
+        parentRow = withParentRow;
+        fireTableDataChanged();
+    }
+
+    /**
+     * @param row the model row
+     * @return true if the row leads to the parent folder
+     */
+    public boolean isParentRow(int row) {
+        return parentRow && row == 0;
+    }
+
+    @Override
+    public FileItem getItem(int row) {
+        return isParentRow(row) ? PARENT_ITEM : super.getItem(row);
+    }
+
+    @Override
+    protected int getLeadingRowCount() {
+        return parentRow ? 1 : 0;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        if (isParentRow(row)) {
+            return column == 0 ? PARENT_FOLDER : column == 1 ? FOLDER_TYPE : "";
+        }
+        int index = toListingIndex(row);
+        switch (column) {
+            case 0:
+                return listing.getName(index);
+            case 1:
+                return listing.isFolder(index) ? FOLDER_TYPE : FILE_TYPE;
+            case 2:
+                return formatSize(index);
+            default:
+                return formatDate(index);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.ibm.cos.client.ui;
+
+import com.ibm.cos.client.model.FileListing;
+import com.ibm.cos.client.util.IndexSorter;
+import com.ibm.cos.client.util.KeyMatcher;
+
+import java.util.stream.IntStream;
+
+/**
+ * Sort order and name filter for a listing, computed as a permutation of its
+ * item indices. The computation reads only the listing's primitive columns and
+ * is meant to run off the event dispatch thread; the result is then swapped
+ * into the table model in one step.
+ */
+public class ListingView {
+
+    public enum SortColumn {
+        NAME, SIZE, DATE
+    }
+
+    private final SortColumn sortColumn;
+    private final boolean ascending;
+    private final String filterText;
+
+    /**
+     * @param sortColumn the column to sort by, or null to keep the listing order
+     * @param ascending true for ascending order
+     * @param filterText text the names must contain, ignoring case (can be null or empty)
+     */
+    public ListingView(SortColumn sortColumn, boolean ascending, String filterText) {
+        this.sortColumn = sortColumn;
+        this.ascending = ascending;
+        this.filterText = filterText != null ? filterText.trim() : "";
+    }
+
+    /**
+     * @return true if neither a sort nor a filter is applied
+     */
+    public boolean isIdentity() {
+        return sortColumn == null && filterText.isEmpty();
+    }
+
+    /**
+     * Computes the visible item indices in display order
+     * @param listing the listing to arrange; must not change while this runs
+     * @return the indices of the items to show, or null to show the listing as it is
+     */
+    public int[] compute(FileListing listing) {
+        if (isIdentity()) {
+            return null;
+        }
+
+        int[] indices;
+        if (filterText.isEmpty()) {
+            indices = IntStream.range(0, listing.size()).toArray();
+        } else {
+            KeyMatcher matcher = new KeyMatcher(filterText);
+            indices = IntStream.range(0, listing.size()).parallel()
+                    .filter(i -> listing.nameMatches(i, matcher))
+                    .toArray();
+        }
+
+        if (sortColumn != null) {
+            sort(listing, indices);
+        }
+        return indices;
+    }
+
+    /**
+     * Sorts by size or date with a radix sort over one long key per file, the direction
+     * folded in, then moves the folders to the front in listing order.
+     */
+    private void sort(FileListing listing, int[] indices) {
+        if (sortColumn == SortColumn.NAME) {
+            sortByName(listing, indices);
+            return;
+        }
+        long[] keys = new long[listing.size()];
+        int folderCount = 0;
+        for (int index : indices) {
+            if (listing.isFolder(index)) {
+                folderCount++;
+            } else {
+                long value = sortColumn == SortColumn.SIZE ? listing.getSize(index) : listing.getLastModified(index);
+                value = Math.max(value, Long.MIN_VALUE + 1);
+                keys[index] = ascending ? value : -value;
+            }
+        }
+        int[] files = new int[indices.length - folderCount];
+        int position = 0;
+        int filePosition = 0;
+        for (int index : indices) {
+            if (listing.isFolder(index)) {
+                indices[position++] = index;
+            } else {
+                files[filePosition++] = index;
+            }
+        }
+        IndexSorter.sortByKey(files, keys);
+        System.arraycopy(files, 0, indices, folderCount, files.length);
+    }
+
+    /**
+     * Orders by the listing's precomputed name ranks with a counting sort, then moves the
+     * folders to the front; both steps are stable and take linear time.
+     */
+    private void sortByName(FileListing listing, int[] indices) {
+        int[] ranks = listing.getNameRanks();
+        int last = ranks.length - 1;
+        int[] starts = new int[ranks.length + 1];
+        for (int index : indices) {
+            starts[(ascending ? ranks[index] : last - ranks[index]) + 1]++;
+        }
+        for (int rank = 0; rank < ranks.length; rank++) {
+            starts[rank + 1] += starts[rank];
+        }
+        int[] byName = new int[indices.length];
+        for (int index : indices) {
+            byName[starts[ascending ? ranks[index] : last - ranks[index]]++] = index;
+        }
+
+        int position = 0;
+        for (int index : byName) {
+            if (listing.isFolder(index)) {
+                indices[position++] = index;
+            }
+        }
+        for (int index : byName) {
+            if (!listing.isFolder(index)) {
+                indices[position++] = index;
+            }
+        }
+    }
+
+    public SortColumn getSortColumn() {
+        return sortColumn;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    public String getFilterText() {
+        return filterText;
+    }
+}
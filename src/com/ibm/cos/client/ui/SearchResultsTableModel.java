@@ -0,0 +1,27 @@
+package com.ibm.cos.client.ui;
+
+/**
+ * Model of the search results: file name, full key, size and date of each match
+ */
+public class SearchResultsTableModel extends FileItemTableModel {
+
+    public SearchResultsTableModel() {
+        super("File Name", "Full Path", "Size", "Last Modified");
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int index = toListingIndex(row);
+        switch (column) {
+            case 0:
+                String key = listing.getName(index);
+                return key.substring(key.lastIndexOf('/') + 1);
+            case 1:
+                return listing.getName(index);
+            case 2:
+                return formatSize(index);
+            default:
+                return formatDate(index);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.ibm.cos.client.ui;
+
+import com.ibm.cos.client.operation.TransferJob;
+import com.ibm.cos.client.util.FileUtils;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Model of the transfer queue: one row per job with its priority, state, progress and latest message.
+ * Jobs change on their own threads, so the view calls refresh periodically to repaint them.
+ * Must only be used on the event dispatch thread.
+ */
+public class TransferQueueTableModel extends AbstractTableModel {
+    private static final String[] COLUMN_NAMES = {"Operation", "Priority", "State", "Progress", "Status"};
+
+    private List<TransferJob> jobs = new ArrayList<>();
+
+    /**
+     * Replaces the rows with the scheduler's current jobs
+     * @param jobs the jobs, oldest first
+     */
+    public void refresh(List<TransferJob> jobs) {
+        if (jobs.equals(this.jobs)) {
+            // Same rows: repaint the cells without dropping the selection
+            this.jobs = jobs;
+            if (!jobs.isEmpty()) {
+                fireTableRowsUpdated(0, jobs.size() - 1);
+            }
+        } else {
+            this.jobs = jobs;
+            fireTableDataChanged();
+        }
+    }
+
+    public TransferJob getJob(int row) {
+        return jobs.get(row);
+    }
+
+    @Override
+    public int getRowCount() {
+        return jobs.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        TransferJob job = jobs.get(row);
+        switch (column) {
+            case 0:
+                return job.getDescription();
+            case 1:
+                return job.getPriority();
+            case 2:
+                return job.getState();
+            case 3:
+                return formatProgress(job.getProgress());
+            default:
+                return job.getStatus();
+        }
+    }
+
+    private static String formatProgress(long[] progress) {
+        if (progress == null) {
+            return "";
+        }
+        String files = progress[0] + "/" + progress[1] + " files";
+        if (progress[3] <= 0) {
+            return files;
+        }
+        return files + ", " + FileUtils.formatSize(progress[2]) + " of " + FileUtils.formatSize(progress[3]);
+    }
+}
@@ -0,0 +1,32 @@
+package com.ibm.cos.client.util;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread factory for background worker pools that must not keep the application alive
+ */
+public class DaemonThreadFactory implements ThreadFactory {
+    private static final AtomicInteger POOL_COUNT = new AtomicInteger(0);
+    
+    private final String namePrefix;
+    private final int priority;
+    private final AtomicInteger threadCount = new AtomicInteger(0);
+    
+    public DaemonThreadFactory(String poolName) {
+        this(poolName, Thread.NORM_PRIORITY);
+    }
+    
+    public DaemonThreadFactory(String poolName, int priority) {
+        this.namePrefix = poolName + "-" + POOL_COUNT.incrementAndGet() + "-";
+        this.priority = priority;
+    }
+    
+    @Override
+    public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        thread.setPriority(priority);
+        return thread;
+    }
+}
@@ -1,10 +1,14 @@
 package com.ibm.cos.client.util;
 
+import java.io.File;
+
 /**
- * Utility class for formatting file sizes
+ * Utility class for formatting file sizes and locating local application data
  */
 public class FileUtils {
     
+    private static final String APPLICATION_DIRECTORY = ".ibm-cos-client";
+    
     private FileUtils() {
         // Utility class
     }
@@ -26,4 +30,17 @@ public class FileUtils {
         }
         return String.format("%.2f GB", size / (1024.0 * 1024 * 1024));
     }
-}
\ No newline at end of file
+    
+    /**
+     * Returns a directory under the per-user application data folder, creating it if needed
+     * @param name the sub-directory name
+     * @return the directory
+     */
+    public static File getApplicationDirectory(String name) {
+        File directory = new File(new File(System.getProperty("user.home"), APPLICATION_DIRECTORY), name);
+        if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+            throw new IllegalStateException("Cannot create directory: " + directory);
+        }
+        return directory;
+    }
+}
@@ -0,0 +1,168 @@
+package com.ibm.cos.client.util;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Stable sorts over an array of row indices: a parallel merge sort by comparator,
+ * and a radix sort by a long key per row.
+ * Sorting primitive indices with a primitive comparator avoids boxing every
+ * row into an Integer, which is what sorting through a Comparator would need.
+ */
+public class IndexSorter {
+    private static final int PARALLEL_THRESHOLD = 1 << 13;
+    private static final int INSERTION_THRESHOLD = 32;
+    /** Bits sorted per radix pass; sizes and dates of a listing usually differ in three 16-bit digits at most */
+    private static final int RADIX_BITS = 16;
+    private static final int RADIX = 1 << RADIX_BITS;
+    /** Fewer rows than this are sorted by comparison, cheaper than clearing the digit counts */
+    private static final int RADIX_THRESHOLD = 1 << 12;
+
+    /**
+     * Compares two row indices
+     */
+    public interface IndexComparator {
+        int compare(int first, int second);
+    }
+
+    private IndexSorter() {
+        // Utility class
+    }
+
+    /**
+     * Sorts the indices in place; equal rows keep their relative order
+     * @param indices the indices to sort
+     * @param comparator compares the rows behind two indices
+     */
+    public static void sort(int[] indices, IndexComparator comparator) {
+        int[] buffer = new int[indices.length];
+        if (indices.length < PARALLEL_THRESHOLD) {
+            mergeSort(indices, buffer, 0, indices.length, comparator);
+        } else {
+            ForkJoinPool.commonPool().invoke(new SortTask(indices, buffer, 0, indices.length, comparator));
+        }
+    }
+
+    /**
+     * Sorts the indices in place by a key per row with a least-significant-digit radix sort;
+     * equal keys keep their relative order. Only the low digits in which the keys differ are
+     * sorted on, so the time is linear and no rows are compared.
+     * @param indices the indices to sort
+     * @param keys the key of every row, looked up by row index
+     */
+    public static void sortByKey(int[] indices, long[] keys) {
+        int length = indices.length;
+        if (length < RADIX_THRESHOLD) {
+            sort(indices, (first, second) -> Long.compare(keys[first], keys[second]));
+            return;
+        }
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int index : indices) {
+            min = Math.min(min, keys[index]);
+            max = Math.max(max, keys[index]);
+        }
+        // Offsets from the minimum keep the order when read as unsigned values
+        long range = max - min;
+        long[] offsets = new long[length];
+        for (int i = 0; i < length; i++) {
+            offsets[i] = keys[indices[i]] - min;
+        }
+
+        int[] order = indices;
+        int[] orderBuffer = new int[length];
+        long[] offsetBuffer = new long[length];
+        int[] starts = new int[RADIX + 1];
+        for (int shift = 0; shift < Long.SIZE && (range >>> shift) != 0; shift += RADIX_BITS) {
+            Arrays.fill(starts, 0);
+            for (int i = 0; i < length; i++) {
+                starts[(int) (offsets[i] >>> shift & (RADIX - 1)) + 1]++;
+            }
+            for (int digit = 0; digit < RADIX; digit++) {
+                starts[digit + 1] += starts[digit];
+            }
+            for (int i = 0; i < length; i++) {
+                int position = starts[(int) (offsets[i] >>> shift & (RADIX - 1))]++;
+                offsetBuffer[position] = offsets[i];
+                orderBuffer[position] = order[i];
+            }
+            long[] swapOffsets = offsets;
+            offsets = offsetBuffer;
+            offsetBuffer = swapOffsets;
+            int[] swapOrder = order;
+            order = orderBuffer;
+            orderBuffer = swapOrder;
+        }
+        if (order != indices) {
+            System.arraycopy(order, 0, indices, 0, length);
+        }
+    }
+
+    private static void mergeSort(int[] indices, int[] buffer, int from, int to, IndexComparator comparator) {
+        if (to - from <= INSERTION_THRESHOLD) {
+            insertionSort(indices, from, to, comparator);
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(indices, buffer, from, middle, comparator);
+        mergeSort(indices, buffer, middle, to, comparator);
+        merge(indices, buffer, from, middle, to, comparator);
+    }
+
+    private static void insertionSort(int[] indices, int from, int to, IndexComparator comparator) {
+        for (int i = from + 1; i < to; i++) {
+            int value = indices[i];
+            int j = i - 1;
+            while (j >= from && comparator.compare(indices[j], value) > 0) {
+                indices[j + 1] = indices[j];
+                j--;
+            }
+            indices[j + 1] = value;
+        }
+    }
+
+    private static void merge(int[] indices, int[] buffer, int from, int middle, int to, IndexComparator comparator) {
+        if (comparator.compare(indices[middle - 1], indices[middle]) <= 0) {
+            return;
+        }
+        System.arraycopy(indices, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && comparator.compare(buffer[left], buffer[right]) <= 0)) {
+                indices[i] = buffer[left++];
+            } else {
+                indices[i] = buffer[right++];
+            }
+        }
+    }
+
+    private static class SortTask extends RecursiveAction {
+        private final int[] indices;
+        private final int[] buffer;
+        private final int from;
+        private final int to;
+        private final IndexComparator comparator;
+
+        SortTask(int[] indices, int[] buffer, int from, int to, IndexComparator comparator) {
+            this.indices = indices;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from < PARALLEL_THRESHOLD) {
+                mergeSort(indices, buffer, from, to, comparator);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SortTask(indices, buffer, from, middle, comparator),
+                      new SortTask(indices, buffer, middle, to, comparator));
+            merge(indices, buffer, from, middle, to, comparator);
+        }
+    }
+}
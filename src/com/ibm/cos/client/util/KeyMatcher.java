@@ -0,0 +1,110 @@
+package com.ibm.cos.client.util;
+
+import java.util.Arrays;
+
+/**
+ * Case-insensitive substring matcher that scans keys in place.
+ * <p>
+ * The term is case-folded once. Keys are compared character by character with
+ * the same folding, and a Horspool skip table lets the scan move past several
+ * characters at a time, so checking a key allocates nothing.
+ */
+public class KeyMatcher {
+    private static final int ASCII = 128;
+
+    private final char[] pattern;
+    private final int[] asciiShift = new int[ASCII];
+    /** Shift for any non-ASCII character; the smallest a non-ASCII pattern character needs */
+    private final int otherShift;
+
+    public KeyMatcher(String term) {
+        if (term == null) {
+            throw new IllegalArgumentException("Term cannot be null");
+        }
+
+        pattern = new char[term.length()];
+        for (int i = 0; i < pattern.length; i++) {
+            pattern[i] = fold(term.charAt(i));
+        }
+
+        int m = pattern.length;
+        Arrays.fill(asciiShift, Math.max(m, 1));
+        int shift = Math.max(m, 1);
+        for (int i = 0; i < m - 1; i++) {
+            char c = pattern[i];
+            if (c < ASCII) {
+                asciiShift[c] = m - 1 - i;
+            } else {
+                shift = Math.min(shift, m - 1 - i);
+            }
+        }
+        otherShift = shift;
+    }
+
+    /**
+     * @param key the text to scan
+     * @return true if the key contains the term, ignoring case
+     */
+    public boolean matches(CharSequence key) {
+        int m = pattern.length;
+        int n = key.length();
+        if (m == 0) {
+            return true;
+        }
+
+        int end = m - 1;
+        while (end < n) {
+            char last = fold(key.charAt(end));
+            if (last == pattern[m - 1]) {
+                int j = m - 2;
+                while (j >= 0 && fold(key.charAt(end - (m - 1) + j)) == pattern[j]) {
+                    j--;
+                }
+                if (j < 0) {
+                    return true;
+                }
+            }
+            end += last < ASCII ? asciiShift[last] : otherShift;
+        }
+        return false;
+    }
+
+    /**
+     * @param text characters to scan
+     * @param start first character of the region
+     * @param end end of the region, exclusive
+     * @return true if the region contains the term, ignoring case
+     */
+    public boolean matches(char[] text, int start, int end) {
+        int m = pattern.length;
+        if (m == 0) {
+            return true;
+        }
+
+        int last = start + m - 1;
+        while (last < end) {
+            char c = fold(text[last]);
+            if (c == pattern[m - 1]) {
+                int j = m - 2;
+                while (j >= 0 && fold(text[last - (m - 1) + j]) == pattern[j]) {
+                    j--;
+                }
+                if (j < 0) {
+                    return true;
+                }
+            }
+            last += c < ASCII ? asciiShift[c] : otherShift;
+        }
+        return false;
+    }
+
+    /**
+     * Folds case the way String.equalsIgnoreCase compares characters
+     */
+    private static char fold(char c) {
+        if (c < ASCII) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+}